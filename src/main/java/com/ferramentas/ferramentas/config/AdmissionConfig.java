@@ -0,0 +1,66 @@
+package com.ferramentas.ferramentas.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Controle de admissão das ferramentas: orçamento global de memória em uso
+ * pelas requisições e limite de taxa por cliente.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionConfig {
+    /** Liga o controle de admissão. */
+    private boolean enabled = true;
+    /** Memória estimada somada de todas as requisições em andamento. */
+    private DataSize memoryBudget = DataSize.ofMegabytes(256);
+    /** Tempo que uma requisição espera por orçamento antes de ser recusada com 503. */
+    private Duration maxWait = Duration.ofSeconds(2);
+    /** Valor do Retry-After quando o orçamento está esgotado. */
+    private Duration retryAfter = Duration.ofSeconds(5);
+    /** Tamanho assumido para corpos sem Content-Length (chunked). */
+    private DataSize unknownRequestSize = DataSize.ofMegabytes(10);
+    /**
+     * Custo estimado por ferramenta (primeiro segmento do caminho): base +
+     * fator × tamanho do corpo. Só as ferramentas listadas passam pela admissão.
+     */
+    private Map<String, Cost> costs = new LinkedHashMap<>();
+    /**
+     * Rotas cujo corpo vai direto para disco (jobs, upload em partes): a
+     * requisição reserva só o custo base e o job reserva ao processar.
+     */
+    private List<String> spooledPaths = new ArrayList<>(List.of("/csv/jobs", "/csv/uploads/**"));
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class Cost {
+        /** Custo fixo de cada requisição. */
+        private DataSize base = DataSize.ofKilobytes(64);
+        /** Multiplicador do tamanho do corpo. */
+        private double factor = 1.0;
+    }
+
+    @Data
+    public static class RateLimit {
+        /** Liga o limite de requisições por cliente. */
+        private boolean enabled = true;
+        /** Requisições por segundo repostas no balde de cada cliente. */
+        private double requestsPerSecond = 20;
+        /** Capacidade do balde (rajada máxima). */
+        private int burst = 40;
+        /** Cabeçalho com o IP do cliente (ex.: X-Forwarded-For atrás de proxy); vazio usa o IP da conexão. */
+        private String clientHeader = "";
+        /** Intervalo da remoção dos baldes de clientes inativos. */
+        private Duration evictionInterval = Duration.ofMinutes(5);
+    }
+}
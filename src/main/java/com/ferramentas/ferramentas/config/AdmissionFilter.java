@@ -0,0 +1,106 @@
+package com.ferramentas.ferramentas.config;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.ferramentas.ferramentas.exception.AdmissionRejectedException;
+import com.ferramentas.ferramentas.exception.RateLimitExceededException;
+import com.ferramentas.ferramentas.service.AdmissionService;
+import com.ferramentas.ferramentas.service.AdmissionService.Permit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica o limite de taxa do cliente e reserva o custo estimado da
+ * requisição no orçamento de memória. Roda como filtro do servlet, antes
+ * do DispatcherServlet, para recusar um upload multipart antes que o corpo
+ * seja recebido e gravado. As recusas passam pelo HandlerExceptionResolver
+ * e saem no formato do GlobalExceptionHandler.
+ *
+ * A reserva é liberada ao fim da requisição; nas respostas assíncronas
+ * (modo stream, SSE, lote de comprovantes), só quando a resposta termina.
+ */
+class AdmissionFilter extends OncePerRequestFilter {
+
+    private final AdmissionService admissionService;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Set<String> tools;
+
+    AdmissionFilter(AdmissionService admissionService, HandlerExceptionResolver exceptionResolver, Set<String> tools) {
+        this.admissionService = admissionService;
+        this.exceptionResolver = exceptionResolver;
+        this.tools = tools;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || tool(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Permit permit;
+        try {
+            admissionService.checkRate(request);
+            permit = admissionService.acquire(tool(request), request);
+        } catch (RateLimitExceededException | AdmissionRejectedException e) {
+            ModelAndView handled = exceptionResolver.resolveException(request, response, null, e);
+            if (handled == null) {
+                throw e;
+            }
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    /** Ferramenta pelo primeiro segmento do caminho, se estiver em admission.costs. */
+    private String tool(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        String tool = end < 0 ? path.substring(start) : path.substring(start, end);
+        return tools.contains(tool) ? tool : null;
+    }
+
+    private record ReleaseListener(Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ferramentas.ferramentas.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.ferramentas.ferramentas.service.AdmissionService;
+
+/**
+ * Registra o controle de admissão como filtro do servlet nos caminhos das
+ * ferramentas de admission.costs, antes da leitura do multipart.
+ */
+@Configuration
+public class AdmissionWebConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(
+            AdmissionConfig config, AdmissionService admissionService,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        Set<String> tools = Set.copyOf(config.getCosts().keySet());
+        FilterRegistrationBean<AdmissionFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionFilter(admissionService, exceptionResolver, tools));
+        registration.setName("admissionFilter");
+        registration.setEnabled(config.isEnabled() && !tools.isEmpty());
+        tools.forEach(tool -> registration.addUrlPatterns("/" + tool + "/*"));
+        return registration;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ferramentas.ferramentas.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ferramentas.ferramentas.util.Bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+
+/**
+ * Bulkheads das ferramentas pesadas em CPU. Cada uma tem seu próprio pool
+ * de threads de plataforma e sua fila; as requisições (threads virtuais,
+ * spring.threads.virtual.enabled) só aguardam o resultado.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkheads")
+public class BulkheadConfig {
+
+    /** Processamento síncrono de CSV a partir do arquivo em spool. */
+    private Pool csv = new Pool(2, 10);
+    /**
+     * Processamento de CSV em streaming. A tarefa lê da requisição e escreve
+     * na resposta, então inclui a transferência de rede: é um limite de
+     * streams simultâneos, separado para que clientes lentos não ocupem as
+     * threads do processamento de arquivos.
+     */
+    private Pool csvStream = new Pool(4, 4);
+    /** Geração de comprovantes em PDF. */
+    private Pool comprovante = new Pool(2, 20);
+    /**
+     * Lotes de comprovantes. Cada lote ocupa uma thread do início ao fim,
+     * então ficam em um pool próprio para não atrasar os comprovantes avulsos.
+     */
+    private Pool comprovanteLote = new Pool(1, 4);
+
+    @Data
+    public static class Pool {
+        /** Threads de plataforma dedicadas. */
+        private int threads;
+        /** Tarefas aguardando; além disso a chamada é recusada. */
+        private int queueCapacity;
+
+        public Pool() {
+        }
+
+        Pool(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead csvBulkhead(MeterRegistry registry) {
+        return new Bulkhead("csv", csv.getThreads(), csv.getQueueCapacity(), registry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead csvStreamBulkhead(MeterRegistry registry) {
+        return new Bulkhead("csv-stream", csvStream.getThreads(), csvStream.getQueueCapacity(), registry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead comprovanteBulkhead(MeterRegistry registry) {
+        return new Bulkhead("comprovante", comprovante.getThreads(), comprovante.getQueueCapacity(), registry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead comprovanteBatchBulkhead(MeterRegistry registry) {
+        return new Bulkhead("comprovante-lote", comprovanteLote.getThreads(), comprovanteLote.getQueueCapacity(),
+                registry);
+    }
+}
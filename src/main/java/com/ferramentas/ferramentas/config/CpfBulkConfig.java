@@ -0,0 +1,18 @@
+package com.ferramentas.ferramentas.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cpf.bulk")
+public class CpfBulkConfig {
+    private boolean parallel = true;
+    private int batchSize = 4096;
+    private DataSize parallelThreshold = DataSize.ofKilobytes(256);
+    /** Linhas maiores são respondidas como inválidas sem serem guardadas inteiras. */
+    private int maxLineLength = 64;
+}
@@ -0,0 +1,23 @@
+package com.ferramentas.ferramentas.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "csv.cache")
+public class CsvCacheConfig {
+    /** Reaproveita o resultado quando o mesmo arquivo é processado de novo. */
+    private boolean enabled = true;
+    /** Quantidade máxima de resultados no índice. */
+    private int maxEntries = 200;
+    /** Soma máxima do tamanho dos resultados guardados. */
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+    /** Intervalo da gravação do índice em disco, quando houve mudança. */
+    private Duration persistInterval = Duration.ofSeconds(5);
+}
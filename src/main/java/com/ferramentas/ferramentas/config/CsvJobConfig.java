@@ -0,0 +1,46 @@
+package com.ferramentas.ferramentas.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@EnableScheduling
+@ConfigurationProperties(prefix = "csv.jobs")
+public class CsvJobConfig {
+    /** Jobs processados ao mesmo tempo. */
+    private int concurrency = 2;
+    /** Jobs aguardando na fila; além disso a submissão é recusada. */
+    private int queueCapacity = 20;
+    /** Tempo que um job finalizado permanece consultável. */
+    private Duration ttl = Duration.ofMinutes(30);
+    /** Intervalo entre eventos de progresso (SSE). */
+    private Duration progressInterval = Duration.ofMillis(500);
+    /** Intervalo da remoção de jobs expirados. */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+    /** Tempo máximo de uma conexão SSE. */
+    private Duration sseTimeout = Duration.ofMinutes(30);
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor csvJobExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "csv-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
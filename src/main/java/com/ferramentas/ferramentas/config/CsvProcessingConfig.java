@@ -0,0 +1,44 @@
+package com.ferramentas.ferramentas.config;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "csv.processing")
+public class CsvProcessingConfig {
+
+    /** Leitura do CSV no processamento de arquivos. */
+    public enum Tokenizer {
+        /** Apache Commons CSV sobre um Reader. */
+        COMMONS,
+        /** Tokenizador de bytes sobre o arquivo mapeado em memória. */
+        MMAP
+    }
+
+    private boolean parallel = true;
+    private int parallelism;
+    private int batchSize = 2000;
+    private DataSize parallelThreshold = DataSize.ofMegabytes(1);
+    private boolean dateInference = false;
+    private int dateInferenceSampleSize = 100;
+    private Tokenizer tokenizer = Tokenizer.COMMONS;
+
+    /**
+     * Número de threads de processamento; 0 usa a quantidade de núcleos.
+     */
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool csvProcessingPool() {
+        return new ForkJoinPool(getEffectiveParallelism());
+    }
+}
@@ -0,0 +1,25 @@
+package com.ferramentas.ferramentas.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "csv.uploads")
+public class CsvUploadConfig {
+    /** Tamanho máximo do arquivo enviado em partes. */
+    private DataSize maxFileSize = DataSize.ofGigabytes(1);
+    /** Tamanho de parte sugerido ao cliente. */
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+    /** Maior parte aceita em uma única requisição. */
+    private DataSize maxChunkSize = DataSize.ofMegabytes(32);
+    /** Uploads sem atividade por mais tempo que isso são descartados. */
+    private Duration ttl = Duration.ofHours(24);
+    /** Intervalo da remoção de uploads abandonados. */
+    private Duration evictionInterval = Duration.ofMinutes(10);
+}
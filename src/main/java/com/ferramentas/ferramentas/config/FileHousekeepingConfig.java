@@ -0,0 +1,31 @@
+package com.ferramentas.ferramentas.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "file.housekeeping")
+public class FileHousekeepingConfig {
+    /** Remove automaticamente os arquivos processados antigos. */
+    private boolean enabled = true;
+    /** Tempo sem acesso após o qual um arquivo processado é removido. */
+    private Duration ttl = Duration.ofHours(24);
+    /** Soma máxima dos arquivos processados; acima disso os menos acessados saem primeiro. */
+    private DataSize maxSize = DataSize.ofGigabytes(5);
+    /** Intervalo entre as execuções da limpeza. */
+    private Duration interval = Duration.ofMinutes(10);
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService fileHousekeepingScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("file-housekeeping").factory());
+    }
+}
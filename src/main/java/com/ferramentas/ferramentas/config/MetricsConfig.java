@@ -0,0 +1,63 @@
+package com.ferramentas.ferramentas.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ferramentas.ferramentas.service.CsvResultCache;
+import com.ferramentas.ferramentas.service.FileService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Medidores lidos a cada coleta (jobs em andamento, armazenamento e cache).
+ * Os tempos das requisições vêm de http.server.requests, com histograma
+ * habilitado em management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder csvJobMetrics(ThreadPoolExecutor csvJobExecutor) {
+        return registry -> {
+            Gauge.builder("csv.jobs.active", csvJobExecutor, ThreadPoolExecutor::getActiveCount)
+                    .description("Jobs de CSV em processamento")
+                    .register(registry);
+            Gauge.builder("csv.jobs.queued", csvJobExecutor, executor -> executor.getQueue().size())
+                    .description("Jobs de CSV aguardando na fila")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder storageMetrics(FileService fileService) {
+        return registry -> {
+            Gauge.builder("files.stored.size", fileService, FileService::getStoredBytes)
+                    .description("Tamanho dos arquivos em processed_files")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("files.stored.count", fileService, FileService::getStoredFileCount)
+                    .description("Arquivos em processed_files")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder csvCacheMetrics(CsvResultCache csvResultCache) {
+        return registry -> {
+            FunctionCounter.builder("csv.cache.hits", csvResultCache, cache -> cache.getStats().getAcertos())
+                    .description("Resultados reaproveitados do cache")
+                    .register(registry);
+            FunctionCounter.builder("csv.cache.misses", csvResultCache, cache -> cache.getStats().getFalhas())
+                    .description("Consultas ao cache sem resultado")
+                    .register(registry);
+            Gauge.builder("csv.cache.size", csvResultCache, cache -> cache.getStats().getBytes())
+                    .description("Tamanho dos resultados no cache")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.ferramentas.ferramentas.controller;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -9,14 +13,22 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ferramentas.ferramentas.dto.ComprovanteRequest;
 import com.ferramentas.ferramentas.service.ComprovanteService;
+import com.ferramentas.ferramentas.service.ComprovanteService.BatchFormat;
+import com.ferramentas.ferramentas.service.ComprovanteService.BatchResult;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
 
 @Slf4j
 @RestController
@@ -25,6 +37,9 @@ import lombok.extern.slf4j.Slf4j;
 @CrossOrigin(origins = "*")
 public class ComprovanteController {
 
+    private static final String GENERATED_TRAILER = "X-Comprovantes-Gerados";
+    private static final String FAILED_TRAILER = "X-Comprovantes-Com-Erro";
+
     private final ComprovanteService comprovanteService;
 
     @PostMapping("/gerar")
@@ -41,4 +56,43 @@ public class ComprovanteController {
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"comprovante.pdf\"")
                 .body(resource);
     }
-}
\ No newline at end of file
+
+    /**
+     * Lote de comprovantes: recebe um array JSON ou NDJSON de retornos e
+     * devolve, em streaming, um PDF em que cada item começa em uma nova
+     * página (formato=pdf) ou um ZIP com um PDF por item (formato=zip). As
+     * contagens vão nos trailers HTTP X-Comprovantes-Gerados e
+     * X-Comprovantes-Com-Erro.
+     */
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> generateBatch(
+            HttpServletRequest request,
+            @RequestParam(value = "formato", required = false) String formato,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Recebida requisição de geração de comprovantes em lote");
+        BatchFormat format = BatchFormat.of(formato);
+        MappingIterator<JsonNode> items = comprovanteService.openBatch(request.getInputStream());
+
+        AtomicReference<BatchResult> result = new AtomicReference<>();
+        response.setTrailerFields(() -> countTrailers(result.get()));
+        StreamingResponseBody body = output -> result.set(comprovanteService.generateBatch(items, output, format));
+
+        boolean zip = format == BatchFormat.ZIP;
+        return ResponseEntity.ok()
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"comprovantes." + (zip ? "zip" : "pdf") + "\"")
+                .header(HttpHeaders.TRAILER, GENERATED_TRAILER + ", " + FAILED_TRAILER)
+                .body(body);
+    }
+
+    private static Map<String, String> countTrailers(BatchResult result) {
+        if (result == null) {
+            return Map.of();
+        }
+        return Map.of(
+                GENERATED_TRAILER, String.valueOf(result.generated()),
+                FAILED_TRAILER, String.valueOf(result.failed()));
+    }
+}
@@ -3,12 +3,20 @@ package com.ferramentas.ferramentas.controller;
 import com.ferramentas.ferramentas.dto.ApiResponse;
 import com.ferramentas.ferramentas.dto.CpfValidationRequest;
 import com.ferramentas.ferramentas.dto.CpfValidationResponse;
+import com.ferramentas.ferramentas.service.CpfBatchService;
 import com.ferramentas.ferramentas.service.CpfService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @Slf4j
 @RestController
@@ -17,7 +25,11 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class CpfController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     private final CpfService cpfService;
+    private final CpfBatchService cpfBatchService;
 
     @PostMapping("/validar")
     public ResponseEntity<ApiResponse<CpfValidationResponse>> validateCpf(
@@ -28,4 +40,36 @@ public class CpfController {
 
         return ResponseEntity.ok(ApiResponse.success(response));
     }
+
+    @PostMapping(value = "/validar/lote", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> validateCpfBatch(
+            HttpServletRequest request,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) throws IOException {
+
+        log.info("Recebida requisição de validação de CPFs em lote");
+        return streamBatch(request.getInputStream(), request.getContentLengthLong(), formato);
+    }
+
+    @PostMapping(value = "/validar/lote", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> validateCpfBatchFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato) throws IOException {
+
+        log.info("Recebida requisição de validação de CPFs em lote: {}", file.getOriginalFilename());
+        return streamBatch(file.getInputStream(), file.getSize(), formato);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamBatch(InputStream input, long contentLength, String formato) {
+        CpfBatchService.Format format = CpfBatchService.Format.of(formato);
+
+        StreamingResponseBody body = output -> {
+            try (InputStream in = input) {
+                cpfBatchService.validate(in, contentLength, output, format);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(format == CpfBatchService.Format.CSV ? CSV : NDJSON)
+                .body(body);
+    }
 }
@@ -1,17 +1,32 @@
 package com.ferramentas.ferramentas.controller;
 
 import com.ferramentas.ferramentas.dto.ApiResponse;
+import com.ferramentas.ferramentas.dto.CsvCacheStats;
 import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
+import com.ferramentas.ferramentas.dto.FileHousekeepingStats;
+import com.ferramentas.ferramentas.service.CsvResultCache;
 import com.ferramentas.ferramentas.service.CsvService;
-import com.ferramentas.ferramentas.service.FileService;
+import com.ferramentas.ferramentas.service.FileDownloadService;
+import com.ferramentas.ferramentas.service.FileHousekeepingService;
+import com.ferramentas.ferramentas.util.CsvProcessingResult;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -20,28 +35,120 @@ import org.springframework.web.multipart.MultipartFile;
 @CrossOrigin(origins = "*")
 public class CsvController {
 
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final List<String> COUNT_TRAILERS =
+            List.of("X-Total-Linhas", "X-Linhas-Processadas", "X-Linhas-Duplicadas-Removidas");
+
     private final CsvService csvService;
-    private final FileService fileService;
+    private final CsvResultCache csvResultCache;
+    private final FileHousekeepingService fileHousekeepingService;
+    private final FileDownloadService fileDownloadService;
 
     @PostMapping("/processar")
     public ResponseEntity<ApiResponse<CsvProcessingResponse>> processCsv(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "deduplicar", required = false) String deduplicar,
+            @RequestParam(value = "compactar", defaultValue = "false") boolean compactar) {
 
         log.info("Recebida requisição de processamento de CSV: {}", file.getOriginalFilename());
-        CsvProcessingResponse response = csvService.processCsv(file);
+        CsvProcessingResponse response = csvService.processCsv(file, Deduplication.of(deduplicar), compactar);
 
         return ResponseEntity.ok(ApiResponse.success("CSV processado com sucesso", response));
     }
 
-    @GetMapping("/download/{fileName}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName) {
-        log.info("Download solicitado: {}", fileName);
+    /**
+     * Modo stream: as linhas transformadas são enviadas na própria resposta
+     * enquanto o upload é lido. As contagens vão nos trailers HTTP
+     * (X-Total-Linhas, X-Linhas-Processadas, X-Linhas-Duplicadas-Removidas).
+     * Com compactar=true a resposta vai com Content-Encoding: gzip.
+     */
+    @PostMapping(value = "/processar", params = "modo=stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> processCsvStream(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "deduplicar", required = false) String deduplicar,
+            @RequestParam(value = "compactar", defaultValue = "false") boolean compactar,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Recebida requisição de processamento de CSV em streaming: {}", file.getOriginalFilename());
+        Deduplication deduplication = Deduplication.of(deduplicar);
+        csvService.validateStreamRequest(file, deduplication);
+        return streamCsv(file.getInputStream(), file.getSize(), deduplication, compactar, response);
+    }
+
+    @PostMapping(value = "/processar", params = "modo=stream", consumes = "text/csv")
+    public ResponseEntity<StreamingResponseBody> processCsvStream(
+            HttpServletRequest request,
+            @RequestParam(value = "deduplicar", required = false) String deduplicar,
+            @RequestParam(value = "compactar", defaultValue = "false") boolean compactar,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Recebida requisição de processamento de CSV em streaming");
+        Deduplication deduplication = Deduplication.of(deduplicar);
+        csvService.validateStreamRequest(null, deduplication);
+        return streamCsv(request.getInputStream(), request.getContentLengthLong(), deduplication, compactar,
+                response);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamCsv(InputStream input, long contentLength,
+                                                            Deduplication deduplication, boolean gzip,
+                                                            HttpServletResponse response) {
+        AtomicReference<CsvProcessingResult> result = new AtomicReference<>();
+        response.setTrailerFields(() -> countTrailers(result.get()));
+
+        StreamingResponseBody body = output -> {
+            try (InputStream in = input) {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE, true);
+                    result.set(csvService.processCsv(in, contentLength, compressed, deduplication));
+                    compressed.finish();
+                } else {
+                    result.set(csvService.processCsv(in, contentLength, output, deduplication));
+                }
+            }
+        };
 
-        Resource resource = fileService.loadFileAsResource(fileName);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder
+                .contentType(CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"formatado.csv\"")
+                .header(HttpHeaders.TRAILER, String.join(", ", COUNT_TRAILERS))
+                .body(body);
+    }
+
+    private static Map<String, String> countTrailers(CsvProcessingResult result) {
+        if (result == null) {
+            return Map.of();
+        }
+        return Map.of(
+                COUNT_TRAILERS.get(0), String.valueOf(result.getTotalRows()),
+                COUNT_TRAILERS.get(1), String.valueOf(result.getRowsWritten()),
+                COUNT_TRAILERS.get(2), String.valueOf(result.getDuplicatesRemoved()));
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    @GetMapping("/cache")
+    public ResponseEntity<ApiResponse<CsvCacheStats>> cacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(csvResultCache.getStats()));
+    }
+
+    @GetMapping("/armazenamento")
+    public ResponseEntity<ApiResponse<FileHousekeepingStats>> storageStats() {
+        return ResponseEntity.ok(ApiResponse.success(fileHousekeepingService.getStats()));
+    }
+
+    @PostMapping("/armazenamento/limpar")
+    public ResponseEntity<ApiResponse<FileHousekeepingStats>> cleanStorage() {
+        log.info("Limpeza de arquivos solicitada");
+        return ResponseEntity.ok(ApiResponse.success("Limpeza executada", fileHousekeepingService.run()));
+    }
+
+    @GetMapping("/download/{fileName}")
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request,
+                             HttpServletResponse response) {
+        log.info("Download solicitado: {}", fileName);
+        fileDownloadService.send(fileName, request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.ferramentas.ferramentas.controller;
+
+import com.ferramentas.ferramentas.dto.ApiResponse;
+import com.ferramentas.ferramentas.dto.CsvJobStatus;
+import com.ferramentas.ferramentas.service.CsvJobService;
+import com.ferramentas.ferramentas.service.FileDownloadService;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/csv/jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CsvJobController {
+
+    private final CsvJobService csvJobService;
+    private final FileDownloadService fileDownloadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<CsvJobStatus>> submit(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "deduplicar", required = false) String deduplicar,
+            @RequestParam(value = "compactar", defaultValue = "false") boolean compactar) {
+
+        log.info("Recebida requisição de job de CSV: {}", file.getOriginalFilename());
+        CsvJobStatus status = csvJobService.submit(file, Deduplication.of(deduplicar), compactar);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Job de CSV criado", status));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CsvJobStatus>> getStatus(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(csvJobService.getStatus(id)));
+    }
+
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String id) {
+        return csvJobService.subscribe(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<CsvJobStatus>> cancel(@PathVariable String id) {
+        log.info("Cancelamento do job de CSV solicitado: {}", id);
+        return ResponseEntity.ok(ApiResponse.success("Cancelamento solicitado", csvJobService.cancel(id)));
+    }
+
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) {
+        fileDownloadService.send(csvJobService.getResultFileName(id), request, response);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ferramentas.ferramentas.controller;
+
+import com.ferramentas.ferramentas.dto.ApiResponse;
+import com.ferramentas.ferramentas.dto.CsvJobStatus;
+import com.ferramentas.ferramentas.dto.CsvUploadCompleteRequest;
+import com.ferramentas.ferramentas.dto.CsvUploadRequest;
+import com.ferramentas.ferramentas.dto.CsvUploadStatus;
+import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.service.CsvUploadService;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Upload de CSV em partes, para arquivos maiores que o limite do multipart.
+ * Fluxo: POST cria o upload, PUT envia cada parte com o seu offset (em
+ * qualquer ordem, podendo repetir), GET mostra o que já chegou e POST
+ * /concluir confere o SHA-256 e cria o job de processamento.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/csv/uploads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CsvUploadController {
+
+    private final CsvUploadService csvUploadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<CsvUploadStatus>> init(@Valid @RequestBody CsvUploadRequest request) {
+        log.info("Recebida requisição de upload em partes: {} ({} bytes)",
+                request.getNomeArquivo(), request.getTamanho());
+        CsvUploadStatus status = csvUploadService.init(request.getNomeArquivo(), request.getTamanho());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Upload criado", status));
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<CsvUploadStatus>> writeChunk(
+            @PathVariable String id,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request) {
+
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(ApiResponse.success(csvUploadService.writeChunk(id, offset, body)));
+        } catch (IOException e) {
+            throw new FileProcessingException("Erro ao ler parte do upload", e);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CsvUploadStatus>> getStatus(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(csvUploadService.getStatus(id)));
+    }
+
+    @PostMapping("/{id}/concluir")
+    public ResponseEntity<ApiResponse<CsvJobStatus>> complete(
+            @PathVariable String id,
+            @Valid @RequestBody CsvUploadCompleteRequest request) {
+
+        log.info("Conclusão do upload em partes solicitada: {}", id);
+        CsvJobStatus status = csvUploadService.complete(id, request.getSha256(),
+                Deduplication.of(request.getDeduplicar()), request.isCompactar());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Upload concluído, job de CSV criado", status));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> abort(@PathVariable String id) {
+        log.info("Cancelamento do upload em partes solicitado: {}", id);
+        csvUploadService.abort(id);
+        return ResponseEntity.ok(ApiResponse.success("Upload cancelado", null));
+    }
+}
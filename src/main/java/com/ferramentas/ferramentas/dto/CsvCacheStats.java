@@ -0,0 +1,18 @@
+package com.ferramentas.ferramentas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvCacheStats {
+    private boolean habilitado;
+    private int entradas;
+    private long bytes;
+    private long acertos;
+    private long falhas;
+}
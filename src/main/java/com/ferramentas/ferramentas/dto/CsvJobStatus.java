@@ -0,0 +1,31 @@
+package com.ferramentas.ferramentas.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CsvJobStatus {
+    private String id;
+    private String arquivo;
+    private String fase;
+    private long linhasLidas;
+    private long linhasGravadas;
+    private long bytesLidos;
+    private long bytesTotais;
+    private double percentual;
+    private Long etaSegundos;
+    private Instant criadoEm;
+    private Instant finalizadoEm;
+    private String erro;
+    private CsvProcessingResponse resultado;
+}
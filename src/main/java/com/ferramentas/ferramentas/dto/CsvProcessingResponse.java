@@ -5,8 +5,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CsvProcessingResponse {
@@ -14,4 +16,8 @@ public class CsvProcessingResponse {
     private String downloadUrl;
     private int totalLinhas;
     private int linhasProcessadas;
+    private int linhasDuplicadasRemovidas;
+    private Map<String, String> formatosData;
+    /** Resultado de um processamento anterior do mesmo arquivo (cache). */
+    private boolean reaproveitado;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.ferramentas.ferramentas.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvUploadCompleteRequest {
+    @NotBlank(message = "SHA-256 do arquivo não pode estar vazio")
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "SHA-256 deve ter 64 caracteres hexadecimais")
+    private String sha256;
+
+    private String deduplicar;
+
+    private boolean compactar;
+}
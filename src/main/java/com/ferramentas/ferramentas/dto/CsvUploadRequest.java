@@ -0,0 +1,18 @@
+package com.ferramentas.ferramentas.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvUploadRequest {
+    @NotBlank(message = "Nome do arquivo não pode estar vazio")
+    private String nomeArquivo;
+
+    @Positive(message = "Tamanho do arquivo deve ser maior que zero")
+    private long tamanho;
+}
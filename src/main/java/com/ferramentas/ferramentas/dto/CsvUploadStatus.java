@@ -0,0 +1,23 @@
+package com.ferramentas.ferramentas.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvUploadStatus {
+    private String id;
+    private String nomeArquivo;
+    private long tamanho;
+    private long bytesRecebidos;
+    private long tamanhoParte;
+    /** Intervalos já recebidos, como pares [início, fim) em bytes. */
+    private List<long[]> intervalosRecebidos;
+    private boolean completo;
+}
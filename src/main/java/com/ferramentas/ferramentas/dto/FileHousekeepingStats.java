@@ -0,0 +1,21 @@
+package com.ferramentas.ferramentas.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileHousekeepingStats {
+    private boolean habilitado;
+    private int arquivos;
+    private long bytes;
+    private long arquivosRemovidos;
+    private long bytesLiberados;
+    private Instant ultimaExecucao;
+}
@@ -0,0 +1,14 @@
+package com.ferramentas.ferramentas.exception;
+
+public class BulkheadRejectedException extends RuntimeException {
+    private final String bulkhead;
+
+    public BulkheadRejectedException(String bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
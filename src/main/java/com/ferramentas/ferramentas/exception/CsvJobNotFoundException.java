@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvJobNotFoundException extends RuntimeException {
+    public CsvJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvJobRejectedException extends RuntimeException {
+    public CsvJobRejectedException(String message) {
+        super(message);
+    }
+}
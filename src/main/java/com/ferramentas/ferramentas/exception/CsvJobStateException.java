@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvJobStateException extends RuntimeException {
+    public CsvJobStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvUploadException extends RuntimeException {
+    public CsvUploadException(String message) {
+        super(message);
+    }
+}
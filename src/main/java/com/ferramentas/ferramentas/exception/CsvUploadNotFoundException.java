@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvUploadNotFoundException extends RuntimeException {
+    public CsvUploadNotFoundException(String message) {
+        super(message);
+    }
+}
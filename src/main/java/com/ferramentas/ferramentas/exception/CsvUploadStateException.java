@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class CsvUploadStateException extends RuntimeException {
+    public CsvUploadStateException(String message) {
+        super(message);
+    }
+}
@@ -33,7 +33,18 @@
  * EXCEÇÕES TRATADAS:
  * - InvalidCpfException           - CPF inválido (400)
  * - InvalidDateException          - Data inválida (400)
+ * - InvalidComprovanteBatchException - Lote de comprovantes vazio ou malformado (400)
+ * - InvalidCpfBatchException      - Formato de saída do lote de CPFs inválido (400)
  * - FileProcessingException       - Erro ao processar arquivo (500)
+ * - CsvJobNotFoundException       - Job de CSV inexistente ou expirado (404)
+ * - CsvJobStateException          - Operação inválida na fase do job (409)
+ * - CsvJobRejectedException       - Fila de jobs cheia (503)
+ * - BulkheadRejectedException     - Fila do bulkhead (CSV/comprovante) cheia (503)
+ * - AdmissionRejectedException    - Orçamento de memória esgotado (503 + Retry-After)
+ * - RateLimitExceededException    - Limite de requisições do cliente (429 + Retry-After)
+ * - CsvUploadNotFoundException    - Upload em partes inexistente ou expirado (404)
+ * - CsvUploadException            - Parte inválida, upload incompleto ou SHA-256 divergente (400)
+ * - CsvUploadStateException       - Upload em conclusão ou já encerrado (409)
  * - MaxUploadSizeExceededException - Arquivo muito grande (413)
  * - MethodArgumentNotValidException - Validação de entrada (400)
  * - Exception                     - Erro genérico (500)
@@ -55,6 +66,7 @@ package com.ferramentas.ferramentas.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -87,6 +99,22 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidComprovanteBatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidComprovanteBatch(InvalidComprovanteBatchException ex) {
+        log.warn("Lote de comprovantes inválido: {}", ex.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCpfBatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCpfBatch(InvalidCpfBatchException ex) {
+        log.warn("Lote de CPFs inválido: {}", ex.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(FileProcessingException.class)
     public ResponseEntity<ApiResponse<Void>> handleFileProcessingException(FileProcessingException ex) {
         log.error("Erro ao processar arquivo: {}", ex.getMessage(), ex);
@@ -95,6 +123,79 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(CsvJobNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvJobNotFound(CsvJobNotFoundException ex) {
+        log.warn("Job de CSV não encontrado: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvJobStateException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvJobState(CsvJobStateException ex) {
+        log.warn("Operação inválida no job de CSV: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvJobRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvJobRejected(CsvJobRejectedException ex) {
+        log.warn("Job de CSV recusado: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(BulkheadRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBulkheadRejected(BulkheadRejectedException ex) {
+        log.warn("Requisição recusada pelo bulkhead {}: fila cheia", ex.getBulkhead());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        log.warn("Requisição recusada pelo controle de admissão: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvUploadNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvUploadNotFound(CsvUploadNotFoundException ex) {
+        log.warn("Upload em partes não encontrado: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvUploadException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvUpload(CsvUploadException ex) {
+        log.warn("Upload em partes inválido: {}", ex.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CsvUploadStateException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvUploadState(CsvUploadStateException ex) {
+        log.warn("Operação inválida no upload em partes: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ApiResponse<Void>> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException ex) {
         log.error("Arquivo muito grande: {}", ex.getMessage());
@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class InvalidComprovanteBatchException extends RuntimeException {
+    public InvalidComprovanteBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ferramentas.ferramentas.exception;
+
+public class InvalidCpfBatchException extends RuntimeException {
+    public InvalidCpfBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,246 @@
+package com.ferramentas.ferramentas.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import com.ferramentas.ferramentas.config.AdmissionConfig;
+import com.ferramentas.ferramentas.exception.AdmissionRejectedException;
+import com.ferramentas.ferramentas.exception.RateLimitExceededException;
+import com.ferramentas.ferramentas.util.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controle de admissão das requisições das ferramentas.
+ *
+ * Orçamento de memória: cada requisição com corpo reserva um custo
+ * estimado pelo tamanho do corpo e pela ferramenta (admission.costs) num
+ * semáforo justo com admission.memory-budget, em KB. Sem orçamento a
+ * requisição espera até admission.max-wait (numa thread virtual) e depois
+ * é recusada com 503. Uma requisição maior que o orçamento inteiro reserva
+ * o orçamento todo e roda sozinha.
+ *
+ * Requisições sem corpo (status, SSE, downloads) não reservam nada. As
+ * rotas de admission.spooled-paths gravam o corpo direto em disco e
+ * reservam só o custo base; o processamento dos jobs de CSV reserva o
+ * custo do arquivo quando o job começa a rodar (acquireForJob).
+ *
+ * Limite de taxa: um balde de fichas por cliente (TokenBucketLimiter, sem
+ * locks); sem fichas a requisição é recusada com 429.
+ */
+@Slf4j
+@Service
+public class AdmissionService {
+
+    private static final String REASON_MEMORY = "memoria";
+    private static final String REASON_RATE = "taxa";
+    private static final String CSV_TOOL = "csv";
+    private static final long JOB_POLL_MILLIS = 1000;
+
+    private final AdmissionConfig config;
+    private final int budgetKb;
+    private final Semaphore budget;
+    private final TokenBucketLimiter limiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter memoryRejections;
+    private final Counter rateRejections;
+
+    public AdmissionService(AdmissionConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.budgetKb = Math.clamp(config.getMemoryBudget().toKilobytes(), 1, Integer.MAX_VALUE);
+        this.budget = new Semaphore(budgetKb, true);
+        AdmissionConfig.RateLimit rateLimit = config.getRateLimit();
+        this.limiter = new TokenBucketLimiter(rateLimit.getRequestsPerSecond(), rateLimit.getBurst());
+
+        Gauge.builder("admission.inflight", this, AdmissionService::getInFlightBytes)
+                .description("Memória estimada reservada pelas requisições em andamento")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("admission.clients", limiter, TokenBucketLimiter::size)
+                .description("Clientes com balde de fichas ativo")
+                .register(registry);
+        this.memoryRejections = rejections(registry, REASON_MEMORY);
+        this.rateRejections = rejections(registry, REASON_RATE);
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requisições recusadas pelo controle de admissão")
+                .tag("motivo", reason)
+                .register(registry);
+    }
+
+    /**
+     * Consome uma ficha do balde do cliente.
+     *
+     * @throws RateLimitExceededException se o cliente passou do limite
+     */
+    public void checkRate(HttpServletRequest request) {
+        if (!config.getRateLimit().isEnabled()) {
+            return;
+        }
+        String client = clientId(request);
+        long waitNanos = limiter.tryAcquire(client);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            log.warn("Limite de requisições excedido pelo cliente {}", client);
+            long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            throw new RateLimitExceededException("Muitas requisições, tente novamente em instantes",
+                    Math.max(1, retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Reserva o custo estimado da requisição no orçamento de memória,
+     * aguardando até admission.max-wait.
+     *
+     * @throws AdmissionRejectedException se o orçamento não liberar a tempo
+     */
+    public Permit acquire(String tool, HttpServletRequest request) {
+        int costKb = estimateKb(tool, request);
+        if (costKb == 0) {
+            return new Permit(0);
+        }
+        boolean acquired;
+        try {
+            acquired = budget.tryAcquire(costKb, config.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            memoryRejections.increment();
+            log.warn("Requisição de {} recusada: orçamento de memória esgotado ({} KB pedidos, {} KB livres)",
+                    tool, costKb, budget.availablePermits());
+            throw new AdmissionRejectedException("Servidor sobrecarregado, tente novamente mais tarde",
+                    Math.max(1, config.getRetryAfter().toSeconds()));
+        }
+        return new Permit(costKb);
+    }
+
+    /**
+     * Reserva o custo do processamento de um job de CSV. O job já está na
+     * fila, então espera pelo orçamento sem prazo, conferindo o cancelamento
+     * a cada segundo.
+     *
+     * @throws CancellationException se o job for cancelado durante a espera
+     */
+    public Permit acquireForJob(long fileSize, BooleanSupplier cancelled) {
+        if (!config.isEnabled()) {
+            return new Permit(0);
+        }
+        int costKb = toKb(cost(CSV_TOOL), fileSize);
+        try {
+            while (!budget.tryAcquire(costKb, JOB_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+        return new Permit(costKb);
+    }
+
+    @Scheduled(fixedDelayString = "${admission.rate-limit.eviction-interval:5m}")
+    public void evictIdleClients() {
+        int removed = limiter.evictIdle();
+        if (removed > 0) {
+            log.debug("{} baldes de clientes inativos removidos", removed);
+        }
+    }
+
+    public long getInFlightBytes() {
+        return (long) (budgetKb - budget.availablePermits()) * 1024;
+    }
+
+    /**
+     * Custo da requisição em KB: zero sem corpo, o custo base nas rotas que
+     * gravam o corpo em disco e base + fator × tamanho nas demais.
+     */
+    int estimateKb(String tool, HttpServletRequest request) {
+        if (!hasBody(request)) {
+            return 0;
+        }
+        AdmissionConfig.Cost cost = cost(tool);
+        if (isSpooled(request)) {
+            return toKb(cost, 0);
+        }
+        long contentLength = request.getContentLengthLong();
+        return toKb(cost, contentLength >= 0 ? contentLength : config.getUnknownRequestSize().toBytes());
+    }
+
+    private AdmissionConfig.Cost cost(String tool) {
+        return config.getCosts().getOrDefault(tool, new AdmissionConfig.Cost());
+    }
+
+    private int toKb(AdmissionConfig.Cost cost, long size) {
+        double bytes = cost.getBase().toBytes() + cost.getFactor() * size;
+        return Math.clamp((long) Math.ceil(bytes / 1024), 1, budgetKb);
+    }
+
+    private static boolean hasBody(HttpServletRequest request) {
+        switch (request.getMethod()) {
+            case "GET", "HEAD", "DELETE", "OPTIONS":
+                return false;
+            default:
+                long contentLength = request.getContentLengthLong();
+                return contentLength > 0 || (contentLength < 0 && request.getHeader("Transfer-Encoding") != null);
+        }
+    }
+
+    private boolean isSpooled(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : config.getSpooledPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String header = config.getRateLimit().getClientHeader();
+        if (header != null && !header.isBlank()) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isBlank()) {
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /** Reserva no orçamento de memória; liberar mais de uma vez não tem efeito. */
+    public final class Permit implements AutoCloseable {
+        private final int kilobytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int kilobytes) {
+            this.kilobytes = kilobytes;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                budget.release(kilobytes);
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
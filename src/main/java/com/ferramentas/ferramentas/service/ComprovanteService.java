@@ -2,6 +2,8 @@ package com.ferramentas.ferramentas.service;
 
 import com.ferramentas.ferramentas.dto.ComprovanteRequest;
 import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.exception.InvalidComprovanteBatchException;
+import com.ferramentas.ferramentas.util.Bulkhead;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
@@ -10,27 +12,294 @@ import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.AreaBreakType;
 import com.itextpdf.layout.properties.TextAlignment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @Service
 public class ComprovanteService {
 
+    private static final DeviceRgb YELLOW_BG = new DeviceRgb(255, 253, 208);
+    private static final String ERRORS_ENTRY = "erros.json";
+
+    /** Formato da resposta do lote: um PDF com cada item em nova página ou um ZIP com um PDF por item. */
+    public enum BatchFormat {
+        PDF, ZIP;
+
+        public static BatchFormat of(String value) {
+            if (value == null || value.isBlank()) {
+                return PDF;
+            }
+            switch (value.trim().toLowerCase()) {
+                case "pdf":
+                    return PDF;
+                case "zip":
+                    return ZIP;
+                default:
+                    throw new InvalidComprovanteBatchException("Formato de lote inválido: " + value + " (use pdf ou zip)");
+            }
+        }
+    }
+
+    /** Contagens do lote, enviadas nos trailers da resposta. */
+    public record BatchResult(int generated, int failed) {
+    }
+
+    record BatchError(int item, String erro) {
+    }
+
     private final Gson gson = new Gson();
+    private final Timer renderTimer;
+    private final Bulkhead comprovanteBulkhead;
+    private final Bulkhead comprovanteBatchBulkhead;
+    private final JsonMapper jsonMapper;
+    private final FileService fileService;
+
+    public ComprovanteService(MeterRegistry registry, Bulkhead comprovanteBulkhead, Bulkhead comprovanteBatchBulkhead,
+                              JsonMapper jsonMapper, FileService fileService) {
+        this.comprovanteBulkhead = comprovanteBulkhead;
+        this.comprovanteBatchBulkhead = comprovanteBatchBulkhead;
+        this.jsonMapper = jsonMapper;
+        this.fileService = fileService;
+        this.renderTimer = Timer.builder("comprovante.render")
+                .description("Tempo de geração do PDF do comprovante")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
+    /** Gera o PDF no bulkhead de comprovantes, fora da thread da requisição. */
     public byte[] generatePdf(ComprovanteRequest request) {
+        return comprovanteBulkhead.call(() -> render(request));
+    }
+
+    /**
+     * Abre um lote de retornos: um array JSON ou NDJSON (um valor por
+     * linha), em que cada item é o objeto {@code {"jsonRetorno": "..."}} ou
+     * a própria string do retorno. Os itens são lidos um a um durante a
+     * geração; aqui só se confere que o lote começa com um item.
+     *
+     * @throws InvalidComprovanteBatchException se o lote estiver vazio ou malformado
+     */
+    public MappingIterator<JsonNode> openBatch(InputStream input) {
+        try {
+            MappingIterator<JsonNode> items = jsonMapper.readerFor(JsonNode.class).readValues(input);
+            if (!items.hasNextValue()) {
+                items.close();
+                throw new InvalidComprovanteBatchException("Lote de comprovantes vazio");
+            }
+            return items;
+        } catch (JacksonException e) {
+            throw new InvalidComprovanteBatchException("Lote de comprovantes malformado: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Gera o lote no bulkhead de lotes, escrevendo na saída à medida
+     * que cada item é lido: no PDF as páginas já concluídas são descarregadas
+     * e no ZIP cada PDF vai direto para a sua entrada, então a memória não
+     * cresce com o tamanho do lote. Um item inválido não interrompe o lote:
+     * no PDF o erro aparece no lugar do comprovante, e cada item começa em
+     * uma nova página; no ZIP o item é listado em erros.json.
+     */
+    public BatchResult generateBatch(MappingIterator<JsonNode> items, OutputStream output, BatchFormat format) {
+        return comprovanteBatchBulkhead.call(() -> {
+            try (items) {
+                BatchResult result = format == BatchFormat.ZIP
+                        ? writeZipBatch(items, output)
+                        : writePdfBatch(items, output);
+                log.info("Lote de comprovantes gerado ({}): {} gerados, {} com erro",
+                        format, result.generated(), result.failed());
+                return result;
+            } catch (IOException e) {
+                throw new FileProcessingException("Erro ao gerar lote de comprovantes: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private BatchResult writePdfBatch(MappingIterator<JsonNode> items, OutputStream output) throws IOException {
+        PdfWriter writer = new PdfWriter(output);
+        writer.setCloseStream(false);
+        try (PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            return forEachItem(items, new BatchItemHandler() {
+                private boolean firstPage = true;
+
+                @Override
+                public void render(int item, String mensagem) {
+                    nextPage();
+                    renderTimer.record(() -> addMensagem(document, mensagem));
+                }
+
+                @Override
+                public void fail(int item, String erro) {
+                    nextPage();
+                    document.add(new Paragraph("Comprovante " + item + " não gerado: " + erro)
+                            .setFontSize(10)
+                            .setFontColor(ColorConstants.RED));
+                }
+
+                private void nextPage() {
+                    if (!firstPage) {
+                        document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                    }
+                    firstPage = false;
+                }
+            });
+        }
+    }
+
+    private BatchResult writeZipBatch(MappingIterator<JsonNode> items, OutputStream output) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(output);
+        try (ErrorLog errors = new ErrorLog()) {
+            BatchResult result = forEachItem(items, new BatchItemHandler() {
+                @Override
+                public void render(int item, String mensagem) throws IOException {
+                    zip.putNextEntry(new ZipEntry(String.format("comprovante-%05d.pdf", item)));
+                    PdfWriter writer = new PdfWriter(zip);
+                    writer.setCloseStream(false);
+                    renderTimer.record(() -> {
+                        try (PdfDocument pdf = new PdfDocument(writer);
+                             Document document = new Document(pdf)) {
+                            addMensagem(document, mensagem);
+                        }
+                    });
+                    zip.closeEntry();
+                }
+
+                @Override
+                public void fail(int item, String erro) throws IOException {
+                    errors.add(item, erro);
+                }
+            });
+
+            errors.writeTo(zip);
+            zip.finish();
+            return result;
+        }
+    }
+
+    /**
+     * Erros do lote em ZIP, gravados em um arquivo de staging à medida que
+     * ocorrem e copiados para erros.json no fim: a memória não cresce com a
+     * quantidade de itens inválidos.
+     */
+    private final class ErrorLog implements Closeable {
+        private Path file;
+        private JsonGenerator generator;
+
+        void add(int item, String erro) throws IOException {
+            if (generator == null) {
+                file = fileService.stagingFile("comprovante_erros_", ".json");
+                generator = jsonMapper.createGenerator(Files.newOutputStream(file));
+                generator.writeStartArray();
+            }
+            generator.writePOJO(new BatchError(item, erro));
+        }
+
+        void writeTo(ZipOutputStream zip) throws IOException {
+            if (generator == null) {
+                return;
+            }
+            generator.writeEndArray();
+            generator.close();
+            generator = null;
+            zip.putNextEntry(new ZipEntry(ERRORS_ENTRY));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (generator != null) {
+                generator.close();
+            }
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Percorre os itens do lote. Erros de um item (retorno ausente ou sem
+     * mensagem) vão para {@code fail}; um erro de sintaxe no lote impede
+     * ler os itens seguintes e encerra o lote com o erro no item seguinte.
+     */
+    private BatchResult forEachItem(MappingIterator<JsonNode> items, BatchItemHandler handler) throws IOException {
+        int item = 0;
+        int generated = 0;
+        int failed = 0;
+        while (true) {
+            JsonNode node;
+            try {
+                if (!items.hasNextValue()) {
+                    break;
+                }
+                node = items.nextValue();
+            } catch (JacksonException e) {
+                handler.fail(item + 1, "Lote interrompido, JSON malformado: " + e.getOriginalMessage());
+                failed++;
+                break;
+            }
+
+            item++;
+            String mensagem;
+            try {
+                mensagem = extractMensagem(retorno(node));
+            } catch (FileProcessingException e) {
+                handler.fail(item, e.getMessage());
+                failed++;
+                continue;
+            }
+            handler.render(item, mensagem);
+            generated++;
+        }
+        return new BatchResult(generated, failed);
+    }
+
+    private static String retorno(JsonNode node) {
+        JsonNode value = node.isObject() ? node.get("jsonRetorno") : node;
+        if (value == null || !value.isString() || value.stringValue().isBlank()) {
+            throw new FileProcessingException("JSON de retorno não pode estar vazio");
+        }
+        return value.stringValue();
+    }
+
+    private interface BatchItemHandler {
+        void render(int item, String mensagem) throws IOException;
+
+        void fail(int item, String erro) throws IOException;
+    }
+
+    private byte[] render(ComprovanteRequest request) {
         try {
             String jsonRetorno = request.getJsonRetorno();
             String mensagem = extractMensagem(jsonRetorno);
 
-            return createPdf(mensagem);
+            return renderTimer.record(() -> createPdf(mensagem));
 
         } catch (Exception e) {
             log.error("Erro ao gerar PDF", e);
@@ -64,23 +333,7 @@ public class ComprovanteService {
              PdfDocument pdf = new PdfDocument(writer);
              Document document = new Document(pdf)) {
 
-            mensagem = mensagem.replace("\\r\\n", "\n")
-                    .replace("<VIA1>", "")
-                    .replace("</VIA1>", "");
-
-            DeviceRgb yellowBg = new DeviceRgb(255, 253, 208);
-
-            String[] lines = mensagem.split("\n");
-            for (String line : lines) {
-                if (!line.trim().isEmpty()) {
-                    Paragraph p = new Paragraph(line)
-                            .setFontSize(10)
-                            .setTextAlignment(TextAlignment.LEFT)
-                            .setBackgroundColor(yellowBg)
-                            .setMarginBottom(2);
-                    document.add(p);
-                }
-            }
+            addMensagem(document, mensagem);
 
             document.close();
             return baos.toByteArray();
@@ -90,4 +343,22 @@ public class ComprovanteService {
             throw new FileProcessingException("Erro ao criar documento PDF", e);
         }
     }
-}
\ No newline at end of file
+
+    private void addMensagem(Document document, String mensagem) {
+        mensagem = mensagem.replace("\\r\\n", "\n")
+                .replace("<VIA1>", "")
+                .replace("</VIA1>", "");
+
+        String[] lines = mensagem.split("\n");
+        for (String line : lines) {
+            if (!line.trim().isEmpty()) {
+                Paragraph p = new Paragraph(line)
+                        .setFontSize(10)
+                        .setTextAlignment(TextAlignment.LEFT)
+                        .setBackgroundColor(YELLOW_BG)
+                        .setMarginBottom(2);
+                document.add(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.ferramentas.ferramentas.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.springframework.stereotype.Service;
+
+import com.ferramentas.ferramentas.config.CpfBulkConfig;
+import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.exception.InvalidCpfBatchException;
+import com.ferramentas.ferramentas.util.CpfBatchValidator;
+import com.ferramentas.ferramentas.util.CpfDigitBatch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validação de CPFs em lote: lê um CPF por linha e grava o resultado de
+ * cada um à medida que é produzido (NDJSON ou CSV), terminando com os
+ * totais. A entrada nunca é carregada inteira em memória; entradas grandes
+ * são validadas em lotes paralelos no pool de processamento, preservando
+ * a ordem das linhas. Linhas acima de cpf.bulk.max-line-length caracteres
+ * viram itens inválidos e o excesso é descartado durante a leitura.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CpfBatchService {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format of(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            switch (value.trim().toLowerCase()) {
+                case "ndjson":
+                    return NDJSON;
+                case "csv":
+                    return CSV;
+                default:
+                    throw new InvalidCpfBatchException("Formato de saída inválido: " + value + " (use ndjson ou csv)");
+            }
+        }
+    }
+
+    private final CpfBatchValidator cpfBatchValidator;
+    private final CpfBulkConfig config;
+    private final ForkJoinPool csvProcessingPool;
+
+    /**
+     * @param contentLength tamanho da entrada em bytes, ou -1 se desconhecido
+     */
+    public void validate(InputStream input, long contentLength, OutputStream output, Format format)
+            throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                config.getMaxLineLength());
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        BatchTotals totals = new BatchTotals();
+
+        if (format == Format.CSV) {
+            writer.write("linha;cpf;valido;cpfFormatado;mensagem\n");
+        }
+
+        boolean parallel = config.isParallel() && csvProcessingPool.getParallelism() > 1
+                && (contentLength < 0 || contentLength >= config.getParallelThreshold().toBytes());
+        if (parallel) {
+            validateParallel(reader, writer, format, totals);
+        } else {
+            validateSequential(reader, writer, format, totals);
+        }
+
+        writeTotals(writer, format, totals);
+        writer.flush();
+
+        log.info("Validação de CPFs em lote concluída - Total: {}, Válidos: {}, Inválidos: {}",
+                totals.total, totals.valid, totals.total - totals.valid);
+    }
+
+    private void validateSequential(BoundedLineReader reader, Writer writer, Format format, BatchTotals totals)
+            throws IOException {
+        Batch batch;
+        long firstLine = 1;
+        while ((batch = readBatch(reader, firstLine)) != null) {
+            firstLine += batch.lineCount;
+            render(batch, format);
+            writeBatch(writer, batch, totals);
+        }
+    }
+
+    private void validateParallel(BoundedLineReader reader, Writer writer, Format format, BatchTotals totals)
+            throws IOException {
+        int maxPending = csvProcessingPool.getParallelism() * 2;
+        Deque<Future<Batch>> pending = new ArrayDeque<>();
+
+        try {
+            Batch batch;
+            long firstLine = 1;
+            while ((batch = readBatch(reader, firstLine)) != null) {
+                firstLine += batch.lineCount;
+                Batch submitted = batch;
+                pending.addLast(csvProcessingPool.submit(() -> render(submitted, format)));
+
+                if (pending.size() >= maxPending) {
+                    writeBatch(writer, await(pending.removeFirst()), totals);
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                writeBatch(writer, await(pending.removeFirst()), totals);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Batch readBatch(BoundedLineReader reader, long firstLine) throws IOException {
+        int batchSize = Math.max(1, config.getBatchSize());
+        List<String> lines = new ArrayList<>(batchSize);
+        String line;
+        while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines.isEmpty() ? null : new Batch(firstLine, lines);
+    }
+
+    private Batch render(Batch batch, Format format) {
+        StringBuilder out = new StringBuilder(batch.lineCount * 96);
+        CpfDigitBatch digits = new CpfDigitBatch(batch.lineCount);
+        String[] cpfs = new String[batch.lineCount];
+        boolean[] tooLong = new boolean[batch.lineCount];
+        int maxLength = config.getMaxLineLength();
+
+        for (int i = 0; i < batch.lineCount; i++) {
+            String line = batch.lines.get(i);
+            if (line.length() > maxLength) {
+                cpfs[i] = line.substring(0, maxLength);
+                tooLong[i] = true;
+                continue;
+            }
+            String cpf = line.trim();
+            if (!cpf.isEmpty()) {
+                digits.add(cpf);
+                cpfs[i] = cpf;
+            }
+        }
+        cpfBatchValidator.validate(digits);
+
+        int index = 0;
+        for (int i = 0; i < batch.lineCount; i++) {
+            String cpf = cpfs[i];
+            if (tooLong[i]) {
+                appendTooLongLine(out, format, batch.firstLine + i, cpf, maxLength);
+                batch.total++;
+            } else if (cpf != null) {
+                boolean valid = digits.isValid(index);
+                String message = message(digits, index);
+
+                if (format == Format.CSV) {
+                    appendCsvLine(out, batch.firstLine + i, cpf, digits, index, message);
+                } else {
+                    appendJsonLine(out, batch.firstLine + i, cpf, digits, index, message);
+                }
+
+                batch.total++;
+                if (valid) {
+                    batch.valid++;
+                }
+                index++;
+            }
+        }
+
+        batch.output = out;
+        batch.lines = null;
+        return batch;
+    }
+
+    private static String message(CpfDigitBatch digits, int index) {
+        if (!digits.isComplete(index)) {
+            return "CPF deve conter 11 dígitos";
+        }
+        if (digits.hasRepeatedDigits(index)) {
+            return "CPF com dígitos repetidos é inválido";
+        }
+        return digits.isValid(index) ? "CPF válido!" : "CPF inválido!";
+    }
+
+    /** Linha longa demais: inválida, com o CPF cortado no limite. */
+    private static void appendTooLongLine(StringBuilder out, Format format, long lineNumber, String cpf,
+                                          int maxLength) {
+        String message = "Linha maior que " + maxLength + " caracteres";
+        if (format == Format.CSV) {
+            out.append(lineNumber).append(';');
+            appendCsvValue(out, cpf);
+            out.append(";N;;").append(message).append('\n');
+        } else {
+            out.append("{\"linha\":").append(lineNumber).append(",\"cpf\":");
+            appendJsonString(out, cpf);
+            out.append(",\"valido\":false,\"cpfFormatado\":null,\"mensagem\":");
+            appendJsonString(out, message);
+            out.append("}\n");
+        }
+    }
+
+    private static void appendJsonLine(StringBuilder out, long lineNumber, String cpf, CpfDigitBatch digits,
+                                       int index, String message) {
+        out.append("{\"linha\":").append(lineNumber).append(",\"cpf\":");
+        appendJsonString(out, cpf);
+        out.append(",\"valido\":").append(digits.isValid(index)).append(",\"cpfFormatado\":");
+        if (!digits.isComplete(index)) {
+            out.append("null");
+        } else {
+            out.append('"');
+            digits.appendFormatted(index, out);
+            out.append('"');
+        }
+        out.append(",\"mensagem\":");
+        appendJsonString(out, message);
+        out.append("}\n");
+    }
+
+    private static void appendCsvLine(StringBuilder out, long lineNumber, String cpf, CpfDigitBatch digits,
+                                      int index, String message) {
+        out.append(lineNumber).append(';');
+        appendCsvValue(out, cpf);
+        out.append(';').append(digits.isValid(index) ? 'S' : 'N').append(';');
+        digits.appendFormatted(index, out);
+        out.append(';').append(message).append('\n');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private static void appendCsvValue(StringBuilder out, String value) {
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private void writeBatch(Writer writer, Batch batch, BatchTotals totals) throws IOException {
+        writer.append(batch.output);
+        writer.flush();
+        totals.total += batch.total;
+        totals.valid += batch.valid;
+    }
+
+    private void writeTotals(Writer writer, Format format, BatchTotals totals) throws IOException {
+        long invalid = totals.total - totals.valid;
+        if (format == Format.CSV) {
+            writer.write("# total=" + totals.total + ";validos=" + totals.valid + ";invalidos=" + invalid + "\n");
+        } else {
+            writer.write("{\"total\":" + totals.total + ",\"validos\":" + totals.valid
+                    + ",\"invalidos\":" + invalid + "}\n");
+        }
+    }
+
+    private Batch await(Future<Batch> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Validação de CPFs interrompida", e);
+        } catch (ExecutionException e) {
+            throw new FileProcessingException("Erro ao validar lote de CPFs", e.getCause());
+        }
+    }
+
+    private static final class Batch {
+        private final long firstLine;
+        private final int lineCount;
+        private List<String> lines;
+        private StringBuilder output;
+        private long total;
+        private long valid;
+
+        Batch(long firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lineCount = lines.size();
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Leitor de linhas (terminadas em \n, \r\n ou \r) que guarda no máximo
+     * {@code maxLength + 1} caracteres por linha; o restante é lido e
+     * descartado. Uma linha cortada volta com {@code maxLength + 1}
+     * caracteres, o que a identifica como longa demais.
+     */
+    private static final class BoundedLineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        /** A linha anterior terminou em \r: um \n logo em seguida faz parte do fim dela. */
+        private boolean skipLf;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /** @return a linha, ou {@code null} no fim da entrada */
+        String readLine() throws IOException {
+            line.setLength(0);
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+                    position = 0;
+                    if (limit == 0) {
+                        return started ? line.toString() : null;
+                    }
+                }
+                if (skipLf) {
+                    skipLf = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+
+                int start = position;
+                while (position < limit) {
+                    char c = buffer[position];
+                    if (c == '\n' || c == '\r') {
+                        append(start, position);
+                        position++;
+                        skipLf = c == '\r';
+                        return line.toString();
+                    }
+                    position++;
+                }
+                append(start, limit);
+                started = true;
+            }
+        }
+
+        private void append(int start, int end) {
+            int room = maxLength + 1 - line.length();
+            if (room > 0) {
+                line.append(buffer, start, Math.min(end - start, room));
+            }
+        }
+    }
+
+    private static final class BatchTotals {
+        private long total;
+        private long valid;
+    }
+}
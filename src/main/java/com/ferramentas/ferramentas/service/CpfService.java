@@ -24,9 +24,9 @@ public class CpfService {
             throw new InvalidCpfException("CPF não pode estar vazio");
         }
 
-        String cleanCpf = cpfValidator.cleanCpf(cpf);
+        long packedCpf = cpfValidator.pack(cpf);
 
-        if (cleanCpf.length() != 11) {
+        if (packedCpf == CpfValidator.INVALID) {
             log.debug("CPF inválido - tamanho incorreto: {}", cpf);
             return CpfValidationResponse.builder()
                     .valido(false)
@@ -35,22 +35,22 @@ public class CpfService {
                     .build();
         }
 
-        if (cleanCpf.matches("(\\d)\\1{10}")) {
+        if (cpfValidator.hasRepeatedDigits(packedCpf)) {
             log.debug("CPF inválido - dígitos repetidos: {}", cpf);
             return CpfValidationResponse.builder()
                     .valido(false)
-                    .cpfFormatado(cpfValidator.format(cleanCpf))
+                    .cpfFormatado(cpfValidator.format(packedCpf))
                     .mensagem("CPF com dígitos repetidos é inválido")
                     .build();
         }
 
-        boolean isValid = cpfValidator.isValid(cleanCpf);
+        boolean isValid = cpfValidator.isValid(packedCpf);
 
         log.debug("CPF {} - válido: {}", cpf, isValid);
 
         return CpfValidationResponse.builder()
                 .valido(isValid)
-                .cpfFormatado(cpfValidator.format(cleanCpf))
+                .cpfFormatado(cpfValidator.format(packedCpf))
                 .mensagem(isValid ? "CPF válido!" : "CPF inválido!")
                 .build();
     }
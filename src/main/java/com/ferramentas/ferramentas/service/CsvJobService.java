@@ -0,0 +1,320 @@
+package com.ferramentas.ferramentas.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ferramentas.ferramentas.config.CsvJobConfig;
+import com.ferramentas.ferramentas.dto.CsvJobStatus;
+import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
+import com.ferramentas.ferramentas.exception.CsvJobNotFoundException;
+import com.ferramentas.ferramentas.exception.CsvJobRejectedException;
+import com.ferramentas.ferramentas.exception.CsvJobStateException;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+import com.ferramentas.ferramentas.util.CsvProgress;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Processamento assíncrono de CSV: a submissão grava o upload e devolve o
+ * id do job imediatamente; o processamento roda no pool limitado
+ * (csv.jobs.concurrency / csv.jobs.queue-capacity), depois de reservar o
+ * custo do arquivo no orçamento de memória (AdmissionService). O estado
+ * fica em memória e os jobs finalizados são descartados após csv.jobs.ttl.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CsvJobService {
+
+    public enum Phase {
+        QUEUED, SCANNING, WRITING, DONE, FAILED, CANCELLED;
+
+        boolean isFinished() {
+            return this == DONE || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private static final String PROGRESS_EVENT = "progresso";
+
+    private final CsvService csvService;
+    private final AdmissionService admissionService;
+    private final CsvJobConfig config;
+    private final ThreadPoolExecutor csvJobExecutor;
+
+    private final Map<String, CsvJob> jobs = new ConcurrentHashMap<>();
+
+    public CsvJobStatus submit(MultipartFile file, Deduplication deduplication, boolean gzip) {
+        csvService.validateFile(file);
+        CsvService.SpooledUpload upload = csvService.spoolUpload(file);
+        try {
+            return submit(upload.file(), upload.sha256(), file.getOriginalFilename(), file.getSize(), deduplication,
+                    gzip);
+        } catch (CsvJobRejectedException e) {
+            csvService.deleteTempFiles(upload.file());
+            throw e;
+        }
+    }
+
+    /**
+     * Cria um job para um arquivo já gravado na área de staging. Aceito, o
+     * job passa a ser dono do arquivo e o remove ao terminar; recusado, o
+     * arquivo continua com quem chamou.
+     * Com {@code gzip} o resultado é publicado como .csv.gz; com o SHA-256
+     * do arquivo, um resultado já existente no cache é reaproveitado e o
+     * job já nasce concluído, sem passar pelo pool.
+     */
+    public CsvJobStatus submit(Path uploadFile, String sha256, String fileName, long size,
+                               Deduplication deduplication, boolean gzip) {
+        CsvJob job = new CsvJob(UUID.randomUUID().toString(), fileName, uploadFile, sha256, size, deduplication,
+                gzip);
+
+        CsvProcessingResponse cached = sha256 != null ? csvService.findProcessed(sha256, deduplication, gzip) : null;
+        if (cached != null) {
+            job.result = cached;
+            finish(job, Phase.DONE);
+            jobs.put(job.id, job);
+            csvService.deleteTempFiles(uploadFile);
+            log.info("Job de CSV {} concluído pelo cache: {}", job.id, job.fileName);
+            return status(job);
+        }
+
+        jobs.put(job.id, job);
+
+        try {
+            job.future = csvJobExecutor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            log.warn("Job de CSV recusado: fila cheia ({} aguardando)", csvJobExecutor.getQueue().size());
+            throw new CsvJobRejectedException("Fila de processamento cheia, tente novamente mais tarde");
+        }
+
+        log.info("Job de CSV {} criado: {}", job.id, job.fileName);
+        return status(job);
+    }
+
+    public CsvJobStatus getStatus(String id) {
+        return status(find(id));
+    }
+
+    public CsvJobStatus cancel(String id) {
+        CsvJob job = find(id);
+        if (job.phase.isFinished()) {
+            throw new CsvJobStateException("Job já finalizado: " + job.phase);
+        }
+
+        // Em execução, o processador interrompe no próximo registro; ainda na fila, o job sai dela
+        job.progress.cancel();
+        if (job.future instanceof Runnable task && csvJobExecutor.remove(task)) {
+            finish(job, Phase.CANCELLED);
+            csvService.deleteTempFiles(job.uploadFile);
+        }
+        log.info("Cancelamento solicitado para o job de CSV {}", id);
+        return status(job);
+    }
+
+    /** Nome do arquivo publicado pelo job, para o download. */
+    public String getResultFileName(String id) {
+        CsvJob job = find(id);
+        if (job.phase != Phase.DONE) {
+            throw new CsvJobStateException("Job ainda não concluído: " + currentPhase(job));
+        }
+        return job.result.getFileName();
+    }
+
+    /**
+     * Abre um fluxo SSE com o status do job: um evento imediato, outro a
+     * cada csv.jobs.progress-interval e o último quando o job termina.
+     */
+    public SseEmitter subscribe(String id) {
+        CsvJob job = find(id);
+        SseEmitter emitter = new SseEmitter(config.getSseTimeout().toMillis());
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(error -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+        publish(job);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${csv.jobs.progress-interval:500ms}")
+    public void publishProgress() {
+        for (CsvJob job : jobs.values()) {
+            if (!job.emitters.isEmpty()) {
+                publish(job);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${csv.jobs.eviction-interval:1m}")
+    public void evictExpired() {
+        Instant limit = Instant.now().minus(config.getTtl());
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.isAfter(limit)) {
+                return false;
+            }
+            job.emitters.forEach(SseEmitter::complete);
+            log.debug("Job de CSV {} expirado", job.id);
+            return true;
+        });
+    }
+
+    private void run(CsvJob job) {
+        if (job.progress.isCancelled()) {
+            finish(job, Phase.CANCELLED);
+            return;
+        }
+
+        // O orçamento de memória é reservado aqui, e não na submissão, que só grava o arquivo
+        try (AdmissionService.Permit permit = admissionService.acquireForJob(job.totalBytes,
+                job.progress::isCancelled)) {
+            job.startedAt = System.nanoTime();
+            job.phase = Phase.SCANNING;
+            job.result = csvService.processStored(job.uploadFile, job.sha256, job.deduplication,
+                    job.gzip, job.progress);
+            finish(job, Phase.DONE);
+            log.info("Job de CSV {} concluído em {} ms", job.id,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - job.startedAt));
+        } catch (CancellationException e) {
+            finish(job, Phase.CANCELLED);
+            log.info("Job de CSV {} cancelado", job.id);
+        } catch (RuntimeException e) {
+            job.error = e.getMessage();
+            finish(job, Phase.FAILED);
+            log.error("Job de CSV {} falhou", job.id, e);
+        } finally {
+            csvService.deleteTempFiles(job.uploadFile);
+        }
+    }
+
+    private boolean finish(CsvJob job, Phase phase) {
+        synchronized (job) {
+            if (job.phase.isFinished()) {
+                return false;
+            }
+            job.phase = phase;
+            job.finishedAt = Instant.now();
+        }
+        publish(job);
+        return true;
+    }
+
+    /** Envia o status a todos os assinantes; encerra os fluxos de jobs finalizados. */
+    private void publish(CsvJob job) {
+        synchronized (job.emitters) {
+            CsvJobStatus status = status(job);
+            boolean finished = job.phase.isFinished();
+            for (SseEmitter emitter : job.emitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(PROGRESS_EVENT).data(status));
+                    if (finished) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    job.emitters.remove(emitter);
+                }
+            }
+        }
+    }
+
+    private CsvJob find(String id) {
+        CsvJob job = jobs.get(id);
+        if (job == null) {
+            throw new CsvJobNotFoundException("Job não encontrado: " + id);
+        }
+        return job;
+    }
+
+    private Phase currentPhase(CsvJob job) {
+        Phase phase = job.phase;
+        if (phase == Phase.SCANNING && job.progress.getPhase() == CsvProgress.Phase.WRITING) {
+            return Phase.WRITING;
+        }
+        return phase;
+    }
+
+    private CsvJobStatus status(CsvJob job) {
+        Phase phase = currentPhase(job);
+        CsvProgress progress = job.progress;
+        long bytesRead = progress.getBytesRead();
+
+        // Só a 2ª passagem lê o arquivo inteiro; o percentual e a estimativa se baseiam nela
+        double percent = 0;
+        Long etaSeconds = null;
+        if (phase == Phase.DONE) {
+            percent = 100;
+            etaSeconds = 0L;
+        } else if (phase == Phase.WRITING && job.totalBytes > 0) {
+            double fraction = Math.min(1.0, (double) bytesRead / job.totalBytes);
+            percent = fraction * 100;
+            if (fraction > 0) {
+                double elapsedSeconds = progress.getPhaseElapsedNanos() / 1e9;
+                etaSeconds = Math.round(elapsedSeconds * (1 - fraction) / fraction);
+            }
+        }
+
+        return CsvJobStatus.builder()
+                .id(job.id)
+                .arquivo(job.fileName)
+                .fase(phase.name())
+                .linhasLidas(progress.getRowsRead())
+                .linhasGravadas(progress.getRowsWritten())
+                .bytesLidos(bytesRead)
+                .bytesTotais(job.totalBytes)
+                .percentual(Math.round(percent * 10) / 10.0)
+                .etaSegundos(etaSeconds)
+                .criadoEm(job.createdAt)
+                .finalizadoEm(job.finishedAt)
+                .erro(job.error)
+                .resultado(job.result)
+                .build();
+    }
+
+    private static final class CsvJob {
+        private final String id;
+        private final String fileName;
+        private final Path uploadFile;
+        private final String sha256;
+        private final long totalBytes;
+        private final Deduplication deduplication;
+        private final boolean gzip;
+        private final CsvProgress progress = new CsvProgress();
+        private final Instant createdAt = Instant.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile Phase phase = Phase.QUEUED;
+        private volatile Future<?> future;
+        private volatile long startedAt;
+        private volatile Instant finishedAt;
+        private volatile CsvProcessingResponse result;
+        private volatile String error;
+
+        CsvJob(String id, String fileName, Path uploadFile, String sha256, long totalBytes,
+               Deduplication deduplication, boolean gzip) {
+            this.id = id;
+            this.fileName = fileName;
+            this.uploadFile = uploadFile;
+            this.sha256 = sha256;
+            this.totalBytes = totalBytes;
+            this.deduplication = deduplication;
+            this.gzip = gzip;
+        }
+    }
+}
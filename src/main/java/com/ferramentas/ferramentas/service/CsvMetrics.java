@@ -0,0 +1,75 @@
+package com.ferramentas.ferramentas.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.ferramentas.ferramentas.util.CsvProcessingResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas do pipeline de CSV. O processador conta localmente, por
+ * arquivo (e por lote no modo paralelo); aqui os totais de cada arquivo
+ * são somados aos contadores uma única vez, fora do caminho por célula.
+ */
+@Component
+public class CsvMetrics {
+
+    public static final String MODE_FILE = "arquivo";
+    public static final String MODE_STREAM = "stream";
+
+    private final MeterRegistry registry;
+    private final Counter rowsRead;
+    private final Counter rowsWritten;
+    private final Counter duplicatesRemoved;
+    private final Counter bytesRead;
+    private final Counter invalidCpfs;
+    private final Counter failedDates;
+    private final Counter droppedColumns;
+
+    public CsvMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rowsRead = Counter.builder("csv.rows.read")
+                .description("Linhas lidas dos CSVs processados")
+                .register(registry);
+        this.rowsWritten = Counter.builder("csv.rows.written")
+                .description("Linhas gravadas nos CSVs formatados")
+                .register(registry);
+        this.duplicatesRemoved = Counter.builder("csv.rows.duplicates")
+                .description("Linhas removidas por CPF duplicado")
+                .register(registry);
+        this.bytesRead = Counter.builder("csv.bytes.read")
+                .description("Bytes de entrada processados")
+                .baseUnit("bytes")
+                .register(registry);
+        this.invalidCpfs = Counter.builder("csv.cpf.invalid")
+                .description("CPFs inválidos gravados em branco")
+                .register(registry);
+        this.failedDates = Counter.builder("csv.dates.failed")
+                .description("Datas que não puderam ser convertidas")
+                .register(registry);
+        this.droppedColumns = Counter.builder("csv.columns.dropped")
+                .description("Colunas vazias removidas")
+                .register(registry);
+    }
+
+    /** Soma as contagens de um arquivo processado e o tempo de processamento. */
+    public void record(CsvProcessingResult result, String mode, long elapsedNanos) {
+        rowsRead.increment(result.getTotalRows());
+        rowsWritten.increment(result.getRowsWritten());
+        duplicatesRemoved.increment(result.getDuplicatesRemoved());
+        bytesRead.increment(result.getBytesRead());
+        invalidCpfs.increment(result.getInvalidCpfs());
+        failedDates.increment(result.getFailedDates());
+        droppedColumns.increment(result.getDroppedColumns());
+        Timer.builder("csv.processing")
+                .description("Tempo de processamento de um CSV")
+                .tag("modo", mode)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
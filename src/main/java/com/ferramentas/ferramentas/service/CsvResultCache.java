@@ -0,0 +1,267 @@
+package com.ferramentas.ferramentas.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ferramentas.ferramentas.config.CsvCacheConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.dto.CsvCacheStats;
+import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
+import com.ferramentas.ferramentas.util.CsvProcessor;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cache de resultados endereçado pelo conteúdo: a chave combina o SHA-256
+ * do arquivo enviado com a versão das regras de processamento e as opções
+ * que mudam a saída. Um arquivo repetido devolve o resultado já publicado,
+ * sem processar de novo.
+ *
+ * O índice é LRU, limitado em entradas (csv.cache.max-entries) e em bytes
+ * (csv.cache.max-size); os resultados que saem do índice são apagados. Ele
+ * é gravado em {@code <file.upload-dir>/.cache/index.json} para sobreviver
+ * a reinícios: entradas novas ou removidas marcam o índice como alterado e
+ * a gravação acontece fora do lock, a cada csv.cache.persist-interval e no
+ * desligamento. Um acerto só reordena o LRU em memória.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CsvResultCache {
+
+    private static final String CACHE_DIR = ".cache";
+    private static final String INDEX_FILE = "index.json";
+
+    private final FileService fileService;
+    private final CsvCacheConfig config;
+    private final CsvProcessingConfig processingConfig;
+    private final JsonMapper jsonMapper;
+
+    /** Em ordem de acesso: o primeiro é o menos usado recentemente. */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long totalBytes;
+    /** Há mudanças no índice ainda não gravadas. */
+    private boolean dirty;
+    /** Serializa as gravações do índice, que acontecem fora do lock do cache. */
+    private final Object persistLock = new Object();
+    private Path indexFile;
+
+    @PostConstruct
+    public void init() {
+        Path cacheLocation = fileService.getStorageLocation().resolve(CACHE_DIR);
+        indexFile = cacheLocation.resolve(INDEX_FILE);
+        try {
+            Files.createDirectories(cacheLocation);
+        } catch (IOException e) {
+            log.warn("Não foi possível criar o diretório do cache de resultados", e);
+        }
+        load();
+    }
+
+    /**
+     * Chave do resultado para o conteúdo enviado e as opções que afetam a
+     * saída (regras, deduplicação, compactação e inferência de datas).
+     */
+    public String key(String sha256, Deduplication deduplication, boolean gzip) {
+        String material = String.join("|", sha256.toLowerCase(), CsvProcessor.RULES_VERSION,
+                deduplication.name(), String.valueOf(gzip), String.valueOf(processingConfig.isDateInference()),
+                String.valueOf(processingConfig.getDateInferenceSampleSize()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return o resultado guardado para a chave, ou {@code null} se não houver
+     *         (ou se o arquivo publicado não existir mais)
+     */
+    public synchronized CsvProcessingResponse lookup(String key) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        CacheEntry entry = entries.get(key);
+        if (entry != null && !Files.exists(resultPath(entry))) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        fileService.touch(entry.result().getFileName());
+        return entry.result();
+    }
+
+    public synchronized void store(String key, CsvProcessingResponse result) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long size;
+        try {
+            size = Files.size(fileService.getStorageLocation().resolve(result.getFileName()));
+        } catch (IOException e) {
+            log.warn("Resultado {} não entrou no cache: {}", result.getFileName(), e.getMessage());
+            return;
+        }
+        if (size > config.getMaxSize().toBytes()) {
+            return;
+        }
+
+        CacheEntry previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.size();
+            if (!previous.result().getFileName().equals(result.getFileName())) {
+                deleteResult(previous);
+            }
+        }
+        entries.put(key, new CacheEntry(key, size, result));
+        totalBytes += size;
+        evict();
+        dirty = true;
+    }
+
+    /**
+     * Remove do índice os resultados com o nome informado, sem apagar o
+     * arquivo; usado quando o arquivo é apagado por outro motivo.
+     */
+    public synchronized void forget(String fileName) {
+        boolean changed = entries.values().removeIf(entry -> {
+            if (entry.result().getFileName().equals(fileName)) {
+                totalBytes -= entry.size();
+                return true;
+            }
+            return false;
+        });
+        if (changed) {
+            dirty = true;
+        }
+    }
+
+    /** Grava o índice se ele mudou desde a última gravação. */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${csv.cache.persist-interval:5s}")
+    public void flush() {
+        synchronized (persistLock) {
+            List<CacheEntry> snapshot;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                snapshot = new ArrayList<>(entries.values());
+            }
+            if (!persist(snapshot)) {
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    public synchronized CsvCacheStats getStats() {
+        return CsvCacheStats.builder()
+                .habilitado(config.isEnabled())
+                .entradas(entries.size())
+                .bytes(totalBytes)
+                .acertos(hits.get())
+                .falhas(misses.get())
+                .build();
+    }
+
+    private void evict() {
+        long maxBytes = config.getMaxSize().toBytes();
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && (entries.size() > config.getMaxEntries() || totalBytes > maxBytes)) {
+            CacheEntry eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.size();
+            dirty = true;
+            deleteResult(eldest);
+            log.debug("Resultado {} removido do cache", eldest.result().getFileName());
+        }
+    }
+
+    private void remove(String key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.size();
+            dirty = true;
+        }
+    }
+
+    private Path resultPath(CacheEntry entry) {
+        return fileService.getStorageLocation().resolve(entry.result().getFileName());
+    }
+
+    private void deleteResult(CacheEntry entry) {
+        fileService.delete(entry.result().getFileName());
+    }
+
+    private void load() {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try {
+            List<CacheEntry> saved = jsonMapper.readValue(indexFile.toFile(), new TypeReference<List<CacheEntry>>() { });
+            for (CacheEntry entry : saved) {
+                if (Files.exists(resultPath(entry))) {
+                    entries.put(entry.key(), entry);
+                    totalBytes += entry.size();
+                }
+            }
+            dirty = entries.size() != saved.size();
+            evict();
+            log.info("Cache de resultados carregado: {} entradas, {} bytes", entries.size(), totalBytes);
+        } catch (JacksonException e) {
+            log.warn("Índice do cache de resultados inválido, começando vazio", e);
+        }
+    }
+
+    /** Grava o índice em um arquivo temporário e o troca de forma atômica. */
+    private boolean persist(List<CacheEntry> snapshot) {
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try {
+            jsonMapper.writeValue(temp.toFile(), snapshot);
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException | JacksonException e) {
+            log.warn("Não foi possível gravar o índice do cache de resultados", e);
+            return false;
+        }
+    }
+
+    record CacheEntry(String key, long size, CsvProcessingResponse result) {
+    }
+}
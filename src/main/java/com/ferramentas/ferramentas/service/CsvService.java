@@ -2,86 +2,223 @@ package com.ferramentas.ferramentas.service;
 
 import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
 import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.util.Bulkhead;
+import com.ferramentas.ferramentas.util.CsvProcessingResult;
+import com.ferramentas.ferramentas.util.CsvProgress;
 import com.ferramentas.ferramentas.util.CsvProcessor;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CsvService {
 
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String GZIP_EXTENSION = ".csv.gz";
+
     private final CsvProcessor csvProcessor;
     private final FileService fileService;
+    private final CsvResultCache csvResultCache;
+    private final CsvMetrics csvMetrics;
+    private final Bulkhead csvBulkhead;
+    private final Bulkhead csvStreamBulkhead;
+
+    /** Upload gravado na área de staging, com o SHA-256 calculado durante a gravação. */
+    public record SpooledUpload(Path file, String sha256) {
+    }
 
     public CsvProcessingResponse processCsv(MultipartFile file) {
-        validateFile(file);
+        return processCsv(file, Deduplication.NONE);
+    }
 
-        File tempFile = null;
-        File processedFile = null;
+    public CsvProcessingResponse processCsv(MultipartFile file, Deduplication deduplication) {
+        return processCsv(file, deduplication, false);
+    }
 
-        try {
-            tempFile = convertMultipartToFile(file);
+    public CsvProcessingResponse processCsv(MultipartFile file, Deduplication deduplication, boolean gzip) {
+        validateFile(file);
 
+        Path uploadFile = null;
+        try {
+            SpooledUpload upload = spoolUpload(file);
+            uploadFile = upload.file();
+            // Um acerto no cache não precisa de vaga no bulkhead
+            CsvProcessingResponse cached = findProcessed(upload.sha256(), deduplication, gzip);
+            if (cached != null) {
+                return cached;
+            }
             log.info("Processando CSV: {}", file.getOriginalFilename());
-            processedFile = csvProcessor.processCsv(tempFile);
+            Path spooled = uploadFile;
+            return csvBulkhead.call(
+                    () -> processStored(spooled, upload.sha256(), deduplication, gzip, new CsvProgress()));
+        } finally {
+            deleteTempFiles(uploadFile);
+        }
+    }
 
-            String fileName = "formatado_" + UUID.randomUUID() + ".csv";
-            File savedFile = fileService.saveFile(processedFile, fileName);
+    /**
+     * Resultado já publicado para o mesmo conteúdo e as mesmas opções, ou
+     * null. É consultado antes de ocupar o bulkhead ou o pool de jobs.
+     */
+    public CsvProcessingResponse findProcessed(String sha256, Deduplication deduplication, boolean gzip) {
+        CsvProcessingResponse cached = csvResultCache.lookup(csvResultCache.key(sha256, deduplication, gzip));
+        if (cached == null) {
+            return null;
+        }
+        log.info("CSV já processado, resultado reaproveitado: {}", cached.getFileName());
+        return cached.toBuilder().reaproveitado(true).build();
+    }
 
-            long lineCount = Files.lines(savedFile.toPath()).count() - 1;
+    /**
+     * Processa um upload já gravado na área de staging e publica o
+     * resultado no armazenamento, como .csv ou, com {@code gzip}, como
+     * .csv.gz. O upload não é removido. Com o SHA-256 do upload, o
+     * resultado é guardado no cache; a consulta é feita antes, por
+     * {@link #findProcessed}.
+     *
+     * @param sha256 SHA-256 do upload, ou null para não usar o cache
+     * @throws CancellationException se o processamento foi cancelado pelo progresso
+     */
+    public CsvProcessingResponse processStored(Path uploadFile, String sha256, Deduplication deduplication,
+                                               boolean gzip, CsvProgress progress) {
+        Path stagingFile = null;
 
-            log.info("CSV processado com sucesso: {} linhas", lineCount);
+        try {
+            stagingFile = fileService.stagingFile("formatado_", ".csv.part");
+            long start = System.nanoTime();
+            CsvProcessingResult result = csvProcessor.processCsv(
+                    uploadFile.toFile(), stagingFile.toFile(), deduplication, gzip, progress);
+            csvMetrics.record(result, CsvMetrics.MODE_FILE, System.nanoTime() - start);
 
-            return CsvProcessingResponse.builder()
+            String fileName = "formatado_" + UUID.randomUUID() + (gzip ? GZIP_EXTENSION : CSV_EXTENSION);
+            fileService.publish(stagingFile, fileName);
+
+            log.info("CSV processado com sucesso: {} linhas", result.getRowsWritten());
+
+            CsvProcessingResponse response = CsvProcessingResponse.builder()
                     .fileName(fileName)
                     .downloadUrl("/files/" + fileName)
-                    .totalLinhas((int) lineCount)
-                    .linhasProcessadas((int) lineCount)
+                    .totalLinhas(result.getTotalRows())
+                    .linhasProcessadas(result.getRowsWritten())
+                    .linhasDuplicadasRemovidas(result.getDuplicatesRemoved())
+                    .formatosData(result.getDateFormats())
                     .build();
+            if (sha256 != null) {
+                csvResultCache.store(csvResultCache.key(sha256, deduplication, gzip), response);
+            }
+            return response;
 
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao processar CSV", e);
             throw new FileProcessingException("Erro ao processar arquivo CSV: " + e.getMessage(), e);
         } finally {
-            deleteTempFiles(tempFile, processedFile);
+            deleteTempFiles(stagingFile);
         }
     }
 
-    private void validateFile(MultipartFile file) {
+    /**
+     * Processa o CSV em streaming, da entrada direto para a saída, sem
+     * arquivos temporários nem cópia em memória. Roda no bulkhead de stream,
+     * que fica ocupado durante toda a transferência: o ritmo é o do cliente,
+     * por isso o limite é de streams simultâneos e não de uso de CPU.
+     */
+    public CsvProcessingResult processCsv(InputStream input, long contentLength, OutputStream output,
+                                          Deduplication deduplication) {
+        return csvStreamBulkhead.call(() -> {
+            try {
+                long start = System.nanoTime();
+                CsvProcessingResult result = csvProcessor.processCsv(input, contentLength, output, deduplication);
+                csvMetrics.record(result, CsvMetrics.MODE_STREAM, System.nanoTime() - start);
+                log.info("CSV processado em streaming: {} linhas", result.getRowsWritten());
+                return result;
+            } catch (IOException e) {
+                log.error("Erro ao processar CSV em streaming", e);
+                throw new FileProcessingException("Erro ao processar arquivo CSV: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Valida a requisição de streaming antes de a resposta começar a ser
+     * enviada, enquanto ainda é possível responder com erro.
+     *
+     * @param file arquivo enviado, ou null quando o CSV vem no corpo da requisição
+     */
+    public void validateStreamRequest(MultipartFile file, Deduplication deduplication) {
+        if (file != null) {
+            validateFile(file);
+        }
+        if (deduplication == Deduplication.KEEP_LAST) {
+            throw new FileProcessingException("O processamento em streaming permite apenas deduplicar=primeira");
+        }
+    }
+
+    public void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new FileProcessingException("Arquivo não pode estar vazio");
         }
 
-        String filename = file.getOriginalFilename();
-        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
-            throw new FileProcessingException("Apenas arquivos CSV são permitidos");
+        if (!isCsvFile(file.getOriginalFilename())) {
+            throw new FileProcessingException("Apenas arquivos CSV (.csv ou .csv.gz) são permitidos");
         }
     }
 
-    private File convertMultipartToFile(MultipartFile multipartFile) throws IOException {
-        File tempFile = File.createTempFile("upload_", ".csv");
-        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-            fos.write(multipartFile.getBytes());
+    /** Aceita .csv e .csv.gz; a descompactação é decidida pelo conteúdo. */
+    static boolean isCsvFile(String filename) {
+        if (filename == null) {
+            return false;
+        }
+        String name = filename.toLowerCase();
+        return name.endsWith(CSV_EXTENSION) || name.endsWith(GZIP_EXTENSION);
+    }
+
+    /**
+     * Grava o upload uma única vez na área de staging, calculando o SHA-256
+     * do conteúdo na mesma leitura (chave do cache de resultados).
+     */
+    public SpooledUpload spoolUpload(MultipartFile multipartFile) {
+        Path uploadFile = fileService.stagingFile("upload_", ".csv");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(multipartFile.getInputStream(), digest)) {
+                Files.copy(input, uploadFile);
+            }
+            return new SpooledUpload(uploadFile, HexFormat.of().formatHex(digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            deleteTempFiles(uploadFile);
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            deleteTempFiles(uploadFile);
+            log.error("Erro ao receber upload do CSV", e);
+            throw new FileProcessingException("Erro ao receber arquivo CSV: " + e.getMessage(), e);
         }
-        return tempFile;
     }
 
-    private void deleteTempFiles(File... files) {
-        for (File file : files) {
-            if (file != null && file.exists()) {
+    public void deleteTempFiles(Path... files) {
+        for (Path file : files) {
+            if (file != null) {
                 try {
-                    Files.delete(file.toPath());
+                    Files.deleteIfExists(file);
                 } catch (IOException e) {
-                    log.warn("Não foi possível deletar arquivo temporário: {}", file.getName());
+                    log.warn("Não foi possível deletar arquivo temporário: {}", file.getFileName());
                 }
             }
         }
@@ -0,0 +1,389 @@
+package com.ferramentas.ferramentas.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ferramentas.ferramentas.config.CsvUploadConfig;
+import com.ferramentas.ferramentas.dto.CsvJobStatus;
+import com.ferramentas.ferramentas.dto.CsvUploadStatus;
+import com.ferramentas.ferramentas.exception.CsvJobRejectedException;
+import com.ferramentas.ferramentas.exception.CsvUploadException;
+import com.ferramentas.ferramentas.exception.CsvUploadNotFoundException;
+import com.ferramentas.ferramentas.exception.CsvUploadStateException;
+import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Upload de CSV em partes, para arquivos acima do limite do multipart.
+ * Cada parte é gravada na sua posição do arquivo de spool com escrita
+ * posicional (FileChannel), então as partes podem chegar fora de ordem,
+ * em paralelo ou repetidas. Os intervalos recebidos ficam registrados e
+ * permitem retomar o envio após uma falha de rede. Na conclusão o SHA-256
+ * do arquivo montado é conferido e o arquivo segue como job de CSV.
+ *
+ * Cada upload passa por aberto → concluindo → encerrado. Partes só são
+ * aceitas com o upload aberto; a conclusão e o cancelamento esperam as
+ * gravações em andamento terminarem antes de ler ou apagar o arquivo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CsvUploadService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final FileService fileService;
+    private final CsvService csvService;
+    private final CsvJobService csvJobService;
+    private final CsvUploadConfig config;
+
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    public CsvUploadStatus init(String fileName, long size) {
+        if (!CsvService.isCsvFile(fileName)) {
+            throw new CsvUploadException("Apenas arquivos CSV (.csv ou .csv.gz) são permitidos");
+        }
+        if (size > config.getMaxFileSize().toBytes()) {
+            throw new CsvUploadException("Arquivo muito grande. Tamanho máximo: " + config.getMaxFileSize());
+        }
+
+        ChunkedUpload upload = new ChunkedUpload(UUID.randomUUID().toString(), fileName, size,
+                fileService.stagingFile("chunked_", ".csv"));
+        uploads.put(upload.id, upload);
+
+        log.info("Upload em partes {} iniciado: {} ({} bytes)", upload.id, fileName, size);
+        return status(upload);
+    }
+
+    /**
+     * Grava uma parte a partir de {@code offset}, lendo o corpo em blocos de
+     * tamanho fixo. Mesmo se a conexão cair no meio, os bytes já gravados
+     * ficam registrados e o cliente pode retomar do ponto informado no status.
+     */
+    public CsvUploadStatus writeChunk(String id, long offset, InputStream body) {
+        ChunkedUpload upload = find(id);
+        if (offset < 0 || offset >= upload.size) {
+            throw new CsvUploadException("Offset fora do arquivo: " + offset);
+        }
+        long limit = Math.min(upload.size, offset + config.getMaxChunkSize().toBytes());
+
+        upload.beginWrite();
+        long position = offset;
+        try (FileChannel channel = FileChannel.open(upload.spoolFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (position + read > limit) {
+                    throw new CsvUploadException(position + read > upload.size
+                            ? "Parte ultrapassa o tamanho declarado do arquivo"
+                            : "Parte maior que o máximo de " + config.getMaxChunkSize());
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Parte do upload {} interrompida em {} bytes", id, position - offset);
+            throw new FileProcessingException("Erro ao gravar parte do upload: " + e.getMessage(), e);
+        } finally {
+            upload.endWrite(offset, position);
+        }
+
+        return status(upload);
+    }
+
+    public CsvUploadStatus getStatus(String id) {
+        return status(find(id));
+    }
+
+    /**
+     * Confere se o arquivo está completo e se o SHA-256 confere, e envia o
+     * arquivo montado para processamento como job. Se a conferência falhar,
+     * o upload volta a aceitar partes para o cliente corrigir o envio.
+     */
+    public CsvJobStatus complete(String id, String sha256, Deduplication deduplication, boolean gzip) {
+        ChunkedUpload upload = find(id);
+        upload.beginCompletion();
+
+        String actual;
+        try {
+            if (!upload.isComplete()) {
+                throw new CsvUploadException("Upload incompleto: recebidos " + upload.receivedBytes()
+                        + " de " + upload.size + " bytes");
+            }
+            actual = sha256(upload.spoolFile);
+            if (!actual.equalsIgnoreCase(sha256)) {
+                throw new CsvUploadException("SHA-256 não confere: esperado " + sha256 + ", calculado " + actual);
+            }
+        } catch (RuntimeException e) {
+            upload.reopen();
+            throw e;
+        }
+
+        CsvJobStatus job;
+        try {
+            job = csvJobService.submit(upload.spoolFile, actual, upload.fileName, upload.size, deduplication, gzip);
+        } catch (CsvJobRejectedException e) {
+            // Fila cheia: o arquivo montado fica guardado para o cliente tentar concluir de novo
+            upload.reopen();
+            throw e;
+        }
+
+        upload.close();
+        uploads.remove(id, upload);
+        log.info("Upload em partes {} concluído: {} bytes", id, upload.size);
+        return job;
+    }
+
+    public void abort(String id) {
+        ChunkedUpload upload = find(id);
+        upload.abort();
+        uploads.remove(id, upload);
+        csvService.deleteTempFiles(upload.spoolFile);
+        log.info("Upload em partes {} cancelado", id);
+    }
+
+    @Scheduled(fixedDelayString = "${csv.uploads.eviction-interval:10m}")
+    public void evictAbandoned() {
+        Instant limit = Instant.now().minus(config.getTtl());
+        uploads.values().removeIf(upload -> {
+            if (upload.lastActivity.isAfter(limit) || !upload.closeIfIdle()) {
+                return false;
+            }
+            csvService.deleteTempFiles(upload.spoolFile);
+            log.info("Upload em partes {} abandonado foi descartado", upload.id);
+            return true;
+        });
+    }
+
+    private String sha256(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new FileProcessingException("Erro ao calcular SHA-256 do upload", e);
+        }
+    }
+
+    private ChunkedUpload find(String id) {
+        ChunkedUpload upload = uploads.get(id);
+        if (upload == null) {
+            throw new CsvUploadNotFoundException("Upload não encontrado: " + id);
+        }
+        return upload;
+    }
+
+    private CsvUploadStatus status(ChunkedUpload upload) {
+        return CsvUploadStatus.builder()
+                .id(upload.id)
+                .nomeArquivo(upload.fileName)
+                .tamanho(upload.size)
+                .bytesRecebidos(upload.receivedBytes())
+                .tamanhoParte(config.getChunkSize().toBytes())
+                .intervalosRecebidos(upload.receivedRanges())
+                .completo(upload.isComplete())
+                .build();
+    }
+
+    private enum State { OPEN, COMPLETING, CLOSED }
+
+    private static final class ChunkedUpload {
+        private final String id;
+        private final String fileName;
+        private final long size;
+        private final Path spoolFile;
+        /** Intervalos recebidos [início, fim), sem sobreposição e já unidos. */
+        private final TreeMap<Long, Long> received = new TreeMap<>();
+        private volatile Instant lastActivity = Instant.now();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition idle = lock.newCondition();
+        private State state = State.OPEN;
+        private int activeWrites;
+
+        ChunkedUpload(String id, String fileName, long size, Path spoolFile) {
+            this.id = id;
+            this.fileName = fileName;
+            this.size = size;
+            this.spoolFile = spoolFile;
+        }
+
+        void beginWrite() {
+            lock.lock();
+            try {
+                requireOpen();
+                activeWrites++;
+                lastActivity = Instant.now();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void endWrite(long start, long end) {
+            lock.lock();
+            try {
+                markReceived(start, end);
+                if (--activeWrites == 0) {
+                    idle.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Fecha o upload para novas partes e espera as gravações em andamento. */
+        void beginCompletion() {
+            lock.lock();
+            try {
+                requireOpen();
+                state = State.COMPLETING;
+                awaitIdle();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void reopen() {
+            lock.lock();
+            try {
+                state = State.OPEN;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                state = State.CLOSED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void abort() {
+            lock.lock();
+            try {
+                if (state == State.COMPLETING) {
+                    throw new CsvUploadStateException("Upload em conclusão não pode ser cancelado: " + id);
+                }
+                if (state == State.CLOSED) {
+                    throw new CsvUploadNotFoundException("Upload não encontrado: " + id);
+                }
+                state = State.CLOSED;
+                awaitIdle();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean closeIfIdle() {
+            lock.lock();
+            try {
+                if (state != State.OPEN || activeWrites > 0) {
+                    return false;
+                }
+                state = State.CLOSED;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void requireOpen() {
+            if (state == State.COMPLETING) {
+                throw new CsvUploadStateException("Upload em conclusão não aceita novas operações: " + id);
+            }
+            if (state == State.CLOSED) {
+                throw new CsvUploadNotFoundException("Upload não encontrado: " + id);
+            }
+        }
+
+        private void awaitIdle() {
+            while (activeWrites > 0) {
+                idle.awaitUninterruptibly();
+            }
+        }
+
+        private void markReceived(long start, long end) {
+            lastActivity = Instant.now();
+            if (end <= start) {
+                return;
+            }
+            Map.Entry<Long, Long> before = received.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                start = before.getKey();
+                end = Math.max(end, before.getValue());
+            }
+            Map.Entry<Long, Long> next;
+            while ((next = received.ceilingEntry(start)) != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                received.remove(next.getKey());
+            }
+            received.put(start, end);
+        }
+
+        long receivedBytes() {
+            lock.lock();
+            try {
+                long total = 0;
+                for (Map.Entry<Long, Long> range : received.entrySet()) {
+                    total += range.getValue() - range.getKey();
+                }
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isComplete() {
+            lock.lock();
+            try {
+                Map.Entry<Long, Long> first = received.firstEntry();
+                return first != null && first.getKey() == 0 && first.getValue() >= size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<long[]> receivedRanges() {
+            lock.lock();
+            try {
+                List<long[]> ranges = new ArrayList<>(received.size());
+                received.forEach((start, end) -> ranges.add(new long[] {start, end}));
+                return ranges;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
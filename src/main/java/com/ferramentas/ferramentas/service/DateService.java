@@ -40,11 +40,11 @@ public class DateService {
         List<String> errors = new ArrayList<>();
 
         for (String dateStr : dateList) {
-            try {
-                String converted = dateFormatter.convertToBrazilianFormat(dateStr);
+            String converted = dateFormatter.tryConvertToBrazilianFormat(dateStr);
+            if (converted != null) {
                 convertedDates.add(converted);
                 log.debug("Data convertida: {} -> {}", dateStr, converted);
-            } catch (Exception e) {
+            } else {
                 String errorMsg = "DATA INVÁLIDA: " + dateStr;
                 errors.add(errorMsg);
                 log.warn("Erro ao converter data: {}", dateStr);
@@ -0,0 +1,99 @@
+package com.ferramentas.ferramentas.service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.ferramentas.ferramentas.config.FileHousekeepingConfig;
+import com.ferramentas.ferramentas.dto.FileHousekeepingStats;
+import com.ferramentas.ferramentas.service.FileService.StoredFile;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limpeza automática de {@code file.upload-dir}: a cada
+ * file.housekeeping.interval, numa thread virtual, remove os arquivos
+ * processados sem acesso há mais de file.housekeeping.ttl e, se a soma
+ * ainda passar de file.housekeeping.max-size, os menos acessados
+ * recentemente. Trabalha sobre o índice em memória do FileService, sem
+ * listar o diretório.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileHousekeepingService {
+
+    private final FileService fileService;
+    private final CsvResultCache csvResultCache;
+    private final FileHousekeepingConfig config;
+    private final ScheduledExecutorService fileHousekeepingScheduler;
+
+    private final AtomicLong filesRemoved = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile Instant lastRun;
+
+    @PostConstruct
+    public void init() {
+        if (!config.isEnabled()) {
+            log.info("Limpeza automática de arquivos desativada");
+            return;
+        }
+        long interval = config.getInterval().toMillis();
+        fileHousekeepingScheduler.scheduleWithFixedDelay(this::runSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Executa uma rodada de limpeza e devolve o estado atualizado. */
+    public synchronized FileHousekeepingStats run() {
+        long cutoff = System.currentTimeMillis() - config.getTtl().toMillis();
+        List<StoredFile> files = fileService.getStoredFiles();
+        files.sort(Comparator.comparingLong(StoredFile::lastAccess));
+
+        long total = files.stream().mapToLong(StoredFile::size).sum();
+        long maxBytes = config.getMaxSize().toBytes();
+        int removed = 0;
+        long reclaimed = 0;
+        for (StoredFile file : files) {
+            if (file.lastAccess() >= cutoff && total <= maxBytes) {
+                break;
+            }
+            reclaimed += fileService.delete(file.name());
+            csvResultCache.forget(file.name());
+            total -= file.size();
+            removed++;
+        }
+
+        filesRemoved.addAndGet(removed);
+        bytesReclaimed.addAndGet(reclaimed);
+        lastRun = Instant.now();
+        if (removed > 0) {
+            log.info("Limpeza de arquivos: {} removidos, {} bytes liberados", removed, reclaimed);
+        }
+        return getStats();
+    }
+
+    public FileHousekeepingStats getStats() {
+        return FileHousekeepingStats.builder()
+                .habilitado(config.isEnabled())
+                .arquivos(fileService.getStoredFileCount())
+                .bytes(fileService.getStoredBytes())
+                .arquivosRemovidos(filesRemoved.get())
+                .bytesLiberados(bytesReclaimed.get())
+                .ultimaExecucao(lastRun)
+                .build();
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Falha na limpeza automática de arquivos", e);
+        }
+    }
+}
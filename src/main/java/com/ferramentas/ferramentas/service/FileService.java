@@ -3,17 +3,23 @@ package com.ferramentas.ferramentas.service;
 import com.ferramentas.ferramentas.exception.FileProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -22,42 +28,178 @@ public class FileService {
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    /** Subdiretório de trabalho, no mesmo volume, de onde os resultados são publicados. */
+    private static final String STAGING_DIR = ".staging";
+
     private Path fileStorageLocation;
+    private Path stagingLocation;
+
+    /**
+     * Índice em memória dos arquivos publicados (tamanho e último acesso),
+     * usado pela limpeza automática sem listar o diretório a cada execução.
+     */
+    private final Map<String, TrackedFile> storedFiles = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.stagingLocation = this.fileStorageLocation.resolve(STAGING_DIR);
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.stagingLocation);
             log.info("Diretório de arquivos criado: {}", this.fileStorageLocation);
         } catch (IOException e) {
             throw new FileProcessingException("Não foi possível criar diretório de upload", e);
         }
+        cleanStaging();
+        indexStoredFiles();
     }
 
-    public File saveFile(File file, String fileName) {
+    /**
+     * Caminho para um arquivo de trabalho na área de staging. O arquivo não
+     * é criado; cabe a quem chama publicá-lo ou removê-lo.
+     */
+    public Path stagingFile(String prefix, String suffix) {
+        return stagingLocation.resolve(prefix + UUID.randomUUID() + suffix);
+    }
+
+    /**
+     * Move o arquivo de staging para o nome final de forma atômica: o
+     * download nunca enxerga um arquivo parcialmente gravado.
+     */
+    public File publish(Path stagingFile, String fileName) {
+        Path targetLocation = this.fileStorageLocation.resolve(fileName);
         try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.toPath(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            log.debug("Arquivo salvo: {}", fileName);
+            try {
+                Files.move(stagingFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(stagingFile, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            }
+            storedFiles.put(fileName, new TrackedFile(Files.size(targetLocation), System.currentTimeMillis()));
+            log.debug("Arquivo publicado: {}", fileName);
             return targetLocation.toFile();
         } catch (IOException e) {
             throw new FileProcessingException("Erro ao salvar arquivo: " + fileName, e);
         }
     }
 
-    public Resource loadFileAsResource(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
+    /** Remove arquivos de staging que sobraram de uma execução interrompida. */
+    private void cleanStaging() {
+        try (Stream<Path> files = Files.list(stagingLocation)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Não foi possível remover arquivo de staging: {}", file.getFileName());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Não foi possível limpar o diretório de staging", e);
+        }
+    }
+
+    /**
+     * Indexa os arquivos já existentes no diretório de armazenamento; sem
+     * registro de acesso, vale a data de modificação.
+     */
+    private void indexStoredFiles() {
+        try (Stream<Path> files = Files.list(fileStorageLocation)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    storedFiles.put(file.getFileName().toString(),
+                            new TrackedFile(Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (IOException e) {
+                    log.warn("Não foi possível indexar o arquivo: {}", file.getFileName());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Não foi possível indexar o diretório de arquivos", e);
+        }
+    }
+
+    /** Foto do índice de arquivos publicados, para a limpeza automática. */
+    public List<StoredFile> getStoredFiles() {
+        List<StoredFile> snapshot = new ArrayList<>(storedFiles.size());
+        storedFiles.forEach((name, file) -> snapshot.add(new StoredFile(name, file.size, file.lastAccess)));
+        return snapshot;
+    }
+
+    /** Soma do tamanho dos arquivos publicados. */
+    public long getStoredBytes() {
+        long total = 0;
+        for (TrackedFile file : storedFiles.values()) {
+            total += file.size;
+        }
+        return total;
+    }
+
+    public int getStoredFileCount() {
+        return storedFiles.size();
+    }
 
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw new FileProcessingException("Arquivo não encontrado: " + fileName);
+    /** Registra um acesso ao arquivo publicado (apenas em memória). */
+    public void touch(String fileName) {
+        TrackedFile file = storedFiles.get(fileName);
+        if (file != null) {
+            file.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Apaga um arquivo publicado e o retira do índice.
+     *
+     * @return o número de bytes liberados (0 se o arquivo não existia)
+     */
+    public long delete(String fileName) {
+        TrackedFile file = storedFiles.remove(fileName);
+        try {
+            if (Files.deleteIfExists(this.fileStorageLocation.resolve(fileName).normalize())) {
+                log.debug("Arquivo removido: {}", fileName);
+                return file != null ? file.size : 0;
             }
-        } catch (Exception e) {
-            throw new FileProcessingException("Erro ao carregar arquivo: " + fileName, e);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o arquivo: {}", fileName);
+        }
+        return 0;
+    }
+
+    /** Diretório de armazenamento dos arquivos processados. */
+    public Path getStorageLocation() {
+        return fileStorageLocation;
+    }
+
+    /** Tipo do arquivo processado para o download: CSV ou CSV compactado (.csv.gz). */
+    public MediaType contentType(String fileName) {
+        if (fileName != null && fileName.endsWith(".gz")) {
+            return MediaType.parseMediaType("application/gzip");
+        }
+        return MediaType.parseMediaType("text/csv");
+    }
+
+    /**
+     * Caminho de um arquivo publicado, para o download; registra o acesso.
+     * Recusa nomes que apontem para fora do diretório de armazenamento.
+     */
+    public Path resolveStoredFile(String fileName) {
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!filePath.getParent().equals(this.fileStorageLocation)
+                || !Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            throw new FileProcessingException("Arquivo não encontrado: " + fileName);
+        }
+        touch(fileName);
+        return filePath;
+    }
+
+    public record StoredFile(String name, long size, long lastAccess) {
+    }
+
+    private static final class TrackedFile {
+        private final long size;
+        private volatile long lastAccess;
+
+        TrackedFile(long size, long lastAccess) {
+            this.size = size;
+            this.lastAccess = lastAccess;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.ferramentas.ferramentas.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ferramentas.ferramentas.exception.BulkheadRejectedException;
+import com.ferramentas.ferramentas.exception.FileProcessingException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pool de threads de plataforma limitado, dedicado a um tipo de trabalho
+ * pesado em CPU. As requisições rodam em threads virtuais e apenas
+ * aguardam aqui; com a fila cheia a chamada é recusada em vez de ocupar
+ * mais threads, e as ferramentas leves continuam respondendo.
+ *
+ * Métricas (tag bulkhead): bulkhead.queued, bulkhead.active e
+ * bulkhead.wait (tempo na fila).
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+
+    public Bulkhead(String name, int threads, int queueCapacity, MeterRegistry registry) {
+        this.name = name;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("bulkhead.queued", executor, pool -> pool.getQueue().size())
+                .description("Tarefas aguardando na fila do bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Tarefas em execução no bulkhead")
+                .tag("bulkhead", name)
+                .register(registry);
+        this.waitTimer = Timer.builder("bulkhead.wait")
+                .description("Tempo de espera na fila do bulkhead")
+                .tag("bulkhead", name)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Executa a tarefa no pool e aguarda o resultado. Exceções de tempo de
+     * execução da tarefa são relançadas como estão.
+     *
+     * @throws BulkheadRejectedException se a fila estiver cheia
+     */
+    public <T> T call(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadRejectedException(name,
+                    "Servidor ocupado (" + name + "), tente novamente mais tarde");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Processamento interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new FileProcessingException("Erro no processamento: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * ============================================================================
+ * CPF BATCH VALIDATOR - VALIDAÇÃO DE CPF EM LOTE
+ * ============================================================================
+ * 
+ * @file        CpfBatchValidator.java
+ * @description Calcula os dígitos verificadores de muitos CPFs de uma vez,
+ *              usando instruções SIMD (Vector API) quando disponíveis.
+ * 
+ * @author      BRENOLIVEIRApng (Breno Oliveira)
+ * @created     17/10/2026
+ * @modified    17/10/2026
+ * @version     2.0.0
+ * 
+ * @package     com.ferramentas.ferramentas.util
+ * @component   Spring Component
+ * @requires    CpfDigitBatch
+ * @requires    jdk.incubator.vector (opcional)
+ * 
+ * ============================================================================
+ * FUNCIONAMENTO:
+ * - Os dígitos ficam em colunas (CpfDigitBatch), um vetor por posição
+ * - As duas somas ponderadas são calculadas para N CPFs por instrução
+ * - O resto da divisão por 11 usa multiplicação e deslocamento
+ * 
+ * FALLBACK:
+ * - Sem --add-modules jdk.incubator.vector a JVM não carrega o módulo e
+ *   o cálculo escalar é usado, com o mesmo resultado de CpfValidator
+ * ============================================================================
+ */
+
+package com.ferramentas.ferramentas.util;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class CpfBatchValidator {
+
+    private static final boolean VECTOR_ENABLED = detectVectorSupport();
+
+    public void validate(CpfDigitBatch batch) {
+        int start = VECTOR_ENABLED ? CpfVectorKernel.validate(batch.digits, batch.size, batch.valid) : 0;
+        validateScalar(batch.digits, start, batch.size, batch.valid);
+    }
+
+    public boolean isVectorized() {
+        return VECTOR_ENABLED;
+    }
+
+    static void validateScalar(int[][] digits, int from, int to, boolean[] valid) {
+        for (int i = from; i < to; i++) {
+            int first = digits[0][i];
+            boolean repeated = true;
+            int firstSum = 0;
+            int secondSum = 0;
+            for (int k = 0; k < 9; k++) {
+                int digit = digits[k][i];
+                firstSum += digit * (10 - k);
+                secondSum += digit * (11 - k);
+                repeated &= digit == first;
+            }
+            int tenth = digits[9][i];
+            int eleventh = digits[10][i];
+            secondSum += tenth * 2;
+            repeated &= tenth == first && eleventh == first;
+
+            valid[i] = !repeated && checkDigit(firstSum) == tenth && checkDigit(secondSum) == eleventh;
+        }
+    }
+
+    private static int checkDigit(int sum) {
+        int digit = 11 - (sum % 11);
+        return digit >= 10 ? 0 : digit;
+    }
+
+    private static boolean detectVectorSupport() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            log.info("Vector API indisponível (--add-modules jdk.incubator.vector); validação de CPF em lote escalar");
+            return false;
+        }
+        try {
+            boolean supported = CpfVectorKernel.isSupported();
+            log.info("Validação de CPF em lote com Vector API: {}", supported);
+            return supported;
+        } catch (LinkageError e) {
+            log.warn("Falha ao carregar a Vector API; usando validação escalar", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ferramentas.ferramentas.util;
+
+/**
+ * Lote de CPFs armazenado por coluna de dígitos: {@code digits[k][i]} é o
+ * k-ésimo dígito do i-ésimo CPF. Esse layout permite que o
+ * {@link CpfBatchValidator} calcule os dígitos verificadores de vários CPFs
+ * de uma vez. CPFs sem exatamente 11 dígitos são gravados como zeros, que
+ * o cálculo rejeita como dígitos repetidos.
+ */
+public final class CpfDigitBatch {
+
+    final int[][] digits;
+    final boolean[] complete;
+    final boolean[] valid;
+    int size;
+
+    public CpfDigitBatch(int capacity) {
+        this.digits = new int[CpfValidator.DIGITS][capacity];
+        this.complete = new boolean[capacity];
+        this.valid = new boolean[capacity];
+    }
+
+    public int capacity() {
+        return complete.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adiciona o CPF ignorando pontuação e demais caracteres.
+     *
+     * @return a posição do CPF no lote, ou -1 se o lote estiver cheio
+     */
+    public int add(CharSequence cpf) {
+        if (size == capacity()) {
+            return -1;
+        }
+        int index = size++;
+        int count = 0;
+        int length = cpf == null ? 0 : cpf.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (count == CpfValidator.DIGITS) {
+                    count++;
+                    break;
+                }
+                digits[count++][index] = c - '0';
+            }
+        }
+
+        complete[index] = count == CpfValidator.DIGITS;
+        valid[index] = false;
+        if (!complete[index]) {
+            for (int k = 0; k < CpfValidator.DIGITS; k++) {
+                digits[k][index] = 0;
+            }
+        }
+        return index;
+    }
+
+    /** Se o CPF tem exatamente 11 dígitos. */
+    public boolean isComplete(int index) {
+        return complete[index];
+    }
+
+    /** Resultado de {@link CpfBatchValidator#validate(CpfDigitBatch)}. */
+    public boolean isValid(int index) {
+        return valid[index];
+    }
+
+    public boolean hasRepeatedDigits(int index) {
+        if (!complete[index]) {
+            return false;
+        }
+        int first = digits[0][index];
+        for (int k = 1; k < CpfValidator.DIGITS; k++) {
+            if (digits[k][index] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acrescenta o CPF no formato XXX.XXX.XXX-XX; não faz nada se o CPF
+     * não tiver 11 dígitos.
+     */
+    public void appendFormatted(int index, StringBuilder out) {
+        if (!complete[index]) {
+            return;
+        }
+        for (int k = 0; k < CpfValidator.DIGITS; k++) {
+            if (k == 3 || k == 6) {
+                out.append('.');
+            } else if (k == 9) {
+                out.append('-');
+            }
+            out.append((char) ('0' + digits[k][index]));
+        }
+    }
+}
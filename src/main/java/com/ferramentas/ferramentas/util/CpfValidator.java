@@ -15,24 +15,27 @@
  * @package     com.ferramentas.ferramentas.util
  * @component   Spring Component
  * @requires    Java Standard Library
- * @requires    Regular Expressions
- * @requires    String Formatting
- * @requires    Exception Handling
- * @requires    Character Utilities
  * 
  * ============================================================================
  * ALGORITMO DE VALIDAÇÃO:
- * 1. Remove caracteres não numéricos
+ * 1. Lê os dígitos ignorando a formatação, na mesma varredura
  * 2. Verifica se possui 11 dígitos
- * 3. Rejeita sequências repetidas (111.111.111-11)
+ * 3. Rejeita sequências repetidas (111.111.111-11) aritmeticamente
  * 4. Calcula primeiro dígito verificador
  * 5. Calcula segundo dígito verificador
  * 6. Compara com os dígitos fornecidos
+ *
+ * O CPF é representado internamente como um long com os 11 dígitos
+ * (pack), evitando expressões regulares e Strings intermediárias.
  * 
  * MÉTODOS PÚBLICOS:
- * - cleanCpf(String)  - Remove formatação do CPF
- * - isValid(String)   - Valida CPF
- * - format(String)    - Formata CPF (XXX.XXX.XXX-XX)
+ * - cleanCpf(String)                 - Remove formatação do CPF
+ * - isValid(CharSequence)            - Valida CPF
+ * - format(String)                   - Formata CPF (XXX.XXX.XXX-XX)
+ * - pack(CharSequence)               - Converte o CPF para long
+ * - isValid(long)                    - Valida CPF já convertido
+ * - format(long, StringBuilder)      - Formata em um buffer reutilizável
+ * - toDigits(long)                   - Os 11 dígitos do CPF
  * 
  * REFERÊNCIA:
  * Receita Federal do Brasil - Regras de validação de CPF
@@ -46,55 +49,152 @@ import org.springframework.stereotype.Component;
 @Component
 public class CpfValidator {
 
+    /** Valor devolvido por {@link #pack(CharSequence)} quando não há exatamente 11 dígitos. */
+    public static final long INVALID = -1L;
+
+    public static final int DIGITS = 11;
+
+    /** Todo CPF com dígitos repetidos é múltiplo de 11111111111. */
+    private static final long REPEATED_DIGITS_DIVISOR = 11_111_111_111L;
+
     public String cleanCpf(String cpf) {
         if (cpf == null) {
             return "";
         }
-        return cpf.replaceAll("\\D", "");
+        int length = cpf.length();
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            if (isDigit(cpf.charAt(i))) {
+                digits++;
+            }
+        }
+        if (digits == length) {
+            return cpf;
+        }
+
+        char[] clean = new char[digits];
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = cpf.charAt(i);
+            if (isDigit(c)) {
+                clean[size++] = c;
+            }
+        }
+        return new String(clean);
     }
 
-    public boolean isValid(String cpf) {
-        String cleanCpf = cleanCpf(cpf);
+    public boolean isValid(CharSequence cpf) {
+        return isValid(pack(cpf));
+    }
 
-        if (cleanCpf.length() != 11) {
-            return false;
+    /**
+     * Lê os dígitos do CPF ignorando pontuação e demais caracteres.
+     *
+     * @return os 11 dígitos como número, ou {@link #INVALID}
+     */
+    public long pack(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALID;
         }
+        long packed = 0;
+        int digits = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (isDigit(c)) {
+                if (++digits > DIGITS) {
+                    return INVALID;
+                }
+                packed = packed * 10 + (c - '0');
+            }
+        }
+        return digits == DIGITS ? packed : INVALID;
+    }
 
-        if (cleanCpf.matches("(\\d)\\1{10}")) {
+    public boolean isValid(long packedCpf) {
+        if (packedCpf < 0 || hasRepeatedDigits(packedCpf)) {
             return false;
         }
 
-        try {
-            int sum = 0;
-            for (int i = 0; i < 9; i++) {
-                sum += Character.getNumericValue(cleanCpf.charAt(i)) * (10 - i);
-            }
-            int firstDigit = 11 - (sum % 11);
-            firstDigit = (firstDigit >= 10) ? 0 : firstDigit;
-
-            sum = 0;
-            for (int i = 0; i < 10; i++) {
-                sum += Character.getNumericValue(cleanCpf.charAt(i)) * (11 - i);
-            }
-            int secondDigit = 11 - (sum % 11);
-            secondDigit = (secondDigit >= 10) ? 0 : secondDigit;
+        int secondDigit = (int) (packedCpf % 10);
+        int firstDigit = (int) (packedCpf / 10 % 10);
+        long base = packedCpf / 100;
 
-            return cleanCpf.charAt(9) == Character.forDigit(firstDigit, 10) &&
-                    cleanCpf.charAt(10) == Character.forDigit(secondDigit, 10);
-        } catch (Exception e) {
-            return false;
+        // Pesos 10..2 e 11..3 do mais para o menos significativo
+        int firstSum = 0;
+        int secondSum = firstDigit * 2;
+        for (int weight = 2; weight <= 10; weight++) {
+            int digit = (int) (base % 10);
+            firstSum += digit * weight;
+            secondSum += digit * (weight + 1);
+            base /= 10;
         }
+
+        return checkDigit(firstSum) == firstDigit && checkDigit(secondSum) == secondDigit;
+    }
+
+    public boolean hasRepeatedDigits(long packedCpf) {
+        return packedCpf >= 0 && packedCpf % REPEATED_DIGITS_DIVISOR == 0;
     }
 
     public String format(String cpf) {
-        String cleanCpf = cleanCpf(cpf);
-        if (cleanCpf.length() != 11) {
+        long packed = pack(cpf);
+        if (packed == INVALID) {
             return cpf;
         }
-        return String.format("%s.%s.%s-%s",
-                cleanCpf.substring(0, 3),
-                cleanCpf.substring(3, 6),
-                cleanCpf.substring(6, 9),
-                cleanCpf.substring(9, 11));
+        return format(packed);
+    }
+
+    public String format(long packedCpf) {
+        StringBuilder out = new StringBuilder(14);
+        format(packedCpf, out);
+        return out.toString();
+    }
+
+    /**
+     * Acrescenta o CPF no formato XXX.XXX.XXX-XX ao buffer informado.
+     *
+     * @return {@code false} se o CPF não tiver 11 dígitos (o buffer não é alterado)
+     */
+    public boolean format(CharSequence cpf, StringBuilder out) {
+        return format(pack(cpf), out);
+    }
+
+    public boolean format(long packedCpf, StringBuilder out) {
+        if (packedCpf < 0) {
+            return false;
+        }
+        appendDigits(out, packedCpf, true);
+        return true;
+    }
+
+    /**
+     * Os 11 dígitos do CPF, com zeros à esquerda.
+     */
+    public String toDigits(long packedCpf) {
+        StringBuilder out = new StringBuilder(DIGITS);
+        appendDigits(out, packedCpf, false);
+        return out.toString();
+    }
+
+    private static void appendDigits(StringBuilder out, long packedCpf, boolean formatted) {
+        long divisor = 10_000_000_000L;
+        for (int i = 0; i < DIGITS; i++) {
+            if (formatted && (i == 3 || i == 6)) {
+                out.append('.');
+            } else if (formatted && i == 9) {
+                out.append('-');
+            }
+            out.append((char) ('0' + packedCpf / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    private static int checkDigit(int sum) {
+        int digit = 11 - (sum % 11);
+        return digit >= 10 ? 0 : digit;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -0,0 +1,69 @@
+package com.ferramentas.ferramentas.util;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Cálculo vetorial dos dígitos verificadores. Só é carregada por
+ * {@link CpfBatchValidator} quando o módulo jdk.incubator.vector está
+ * presente, para que a aplicação continue funcionando sem ele.
+ */
+final class CpfVectorKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /** floor(x * 5958 / 2^16) == x / 11 para 0 <= x <= 585, a maior soma possível. */
+    private static final int MOD11_MULTIPLIER = 5958;
+    private static final int MOD11_SHIFT = 16;
+
+    private CpfVectorKernel() {
+    }
+
+    static boolean isSupported() {
+        return SPECIES.length() >= 4;
+    }
+
+    /**
+     * Valida os CPFs em blocos do tamanho do vetor.
+     *
+     * @return a posição do primeiro CPF não processado (o restante fica
+     *         para o cálculo escalar)
+     */
+    static int validate(int[][] digits, int count, boolean[] valid) {
+        int upper = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector first = IntVector.fromArray(SPECIES, digits[0], i);
+            IntVector firstSum = IntVector.zero(SPECIES);
+            IntVector secondSum = IntVector.zero(SPECIES);
+            VectorMask<Integer> repeated = SPECIES.maskAll(true);
+
+            for (int k = 0; k < 9; k++) {
+                IntVector digit = IntVector.fromArray(SPECIES, digits[k], i);
+                firstSum = firstSum.add(digit.mul(10 - k));
+                secondSum = secondSum.add(digit.mul(11 - k));
+                repeated = repeated.and(digit.eq(first));
+            }
+
+            IntVector tenth = IntVector.fromArray(SPECIES, digits[9], i);
+            IntVector eleventh = IntVector.fromArray(SPECIES, digits[10], i);
+            secondSum = secondSum.add(tenth.mul(2));
+            repeated = repeated.and(tenth.eq(first)).and(eleventh.eq(first));
+
+            checkDigit(firstSum).eq(tenth)
+                    .and(checkDigit(secondSum).eq(eleventh))
+                    .andNot(repeated)
+                    .intoArray(valid, i);
+        }
+        return i;
+    }
+
+    private static IntVector checkDigit(IntVector sum) {
+        IntVector quotient = sum.mul(MOD11_MULTIPLIER).lanewise(VectorOperators.LSHR, MOD11_SHIFT);
+        IntVector remainder = sum.sub(quotient.mul(11));
+        return IntVector.broadcast(SPECIES, 11).sub(remainder)
+                .blend(0, remainder.compare(VectorOperators.LT, 2));
+    }
+}
@@ -0,0 +1,29 @@
+package com.ferramentas.ferramentas.util;
+
+import java.io.File;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvProcessingResult {
+    private File file;
+    private Map<String, String> dateFormats;
+    private int totalRows;
+    private int rowsWritten;
+    private int duplicatesRemoved;
+    /** Bytes lidos da entrada (compactados, se for o caso). */
+    private long bytesRead;
+    /** CPFs preenchidos e inválidos, gravados em branco. */
+    private int invalidCpfs;
+    /** Datas preenchidas que não puderam ser convertidas, gravadas em branco. */
+    private int failedDates;
+    /** Colunas do arquivo removidas por estarem vazias. */
+    private int droppedColumns;
+}
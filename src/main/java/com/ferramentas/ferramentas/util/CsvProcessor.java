@@ -24,9 +24,25 @@
  * - Conversão de datas para formato brasileiro (DD/MM/YYYY)
  * - Normalização do campo DEPENDENTE (Titular→N, Dependente→S)
  * - Remoção de caracteres especiais perigosos
- * - Sanitização de campos conforme regras
+ * - Sanitização de campos conforme regras (varredura única, sem regex)
  * - Remoção de colunas completamente vazias
  * - Geração de CSV com delimitador ponto-e-vírgula (;)
+ *
+ * PROCESSAMENTO EM DUAS PASSAGENS:
+ * - 1ª passagem marca em um BitSet as colunas com conteúdo
+ * - 2ª passagem grava as linhas em streaming, sem as colunas vazias
+ * - Memória constante, independente do número de linhas
+ * - Arquivos grandes são transformados em lotes paralelos (csv.processing),
+ *   mantendo a ordem original das linhas na saída
+ * - Opcionalmente (csv.processing.tokenizer=mmap) o arquivo é lido por um
+ *   tokenizador de bytes sobre o arquivo mapeado em memória, que só cria
+ *   Strings para os campos usados (MappedCsvReader)
+ * - O cabeçalho é compilado uma vez em um plano indexado de colunas
+ * - Opcionalmente (csv.processing.date-inference) o formato de cada coluna
+ *   de data é inferido por amostragem e fixado para o restante do arquivo
+ * - Opcionalmente remove linhas com CPF repetido, mantendo a primeira ou a
+ *   última ocorrência; a 1ª passagem marca as linhas descartadas usando
+ *   conjuntos primitivos de long (LongHashSet / LongIntHashMap)
  * 
  * CAMPOS PERMITIDOS COM ESPAÇOS:
  * - NOME, PAI, MAE, DEPARTAMENTO
@@ -42,28 +58,45 @@
 
 package com.ferramentas.ferramentas.util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig.Tokenizer;
 import com.ferramentas.ferramentas.exception.FileProcessingException;
+import com.ferramentas.ferramentas.util.DateFormatter.DatePattern;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -73,8 +106,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class CsvProcessor {
 
+    /**
+     * Versão das regras de transformação. Faz parte da chave do cache de
+     * resultados: deve ser incrementada sempre que a saída de um mesmo
+     * arquivo mudar.
+     */
+    public static final String RULES_VERSION = "1";
+
     private final CpfValidator cpfValidator;
     private final DateFormatter dateFormatter;
+    private final CsvProcessingConfig config;
+    private final ForkJoinPool csvProcessingPool;
 
     private static final Set<String> ALLOWED_SPACE_FIELDS = Set.of(
             "NOME", "PAI", "MAE", "DEPARTAMENTO",
@@ -83,72 +125,425 @@ public class CsvProcessor {
             "CARGO", "REFERENCIA", "OBSERVACAO"
     );
 
-    public File processCsv(File inputFile) {
-        try (Reader reader = new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8);
-             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim())) {
+    private static final byte OTHER = 0;
+    private static final byte ALNUM = 1;
+    private static final byte SPACE = 2;
+
+    /** Classe de cada caractere ASCII; espaços seguem o \s das expressões regulares Java. */
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) CHAR_CLASS[c] = ALNUM;
+        for (char c = 'A'; c <= 'Z'; c++) CHAR_CLASS[c] = ALNUM;
+        for (char c = 'a'; c <= 'z'; c++) CHAR_CLASS[c] = ALNUM;
+        for (char c : new char[] {' ', '\t', '\n', '\u000B', '\f', '\r'}) CHAR_CLASS[c] = SPACE;
+    }
+
+    private static final CSVFormat INPUT_FORMAT = CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim();
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_CACHED_BUFFER = 8192;
+    private static final ThreadLocal<char[]> SANITIZE_BUFFER = ThreadLocal.withInitial(() -> new char[256]);
 
-            List<String> headers = new ArrayList<>(parser.getHeaderNames());
-            List<Map<String, String>> processedRows = new ArrayList<>();
+    /**
+     * Tratamento de linhas com o mesmo CPF válido. Linhas sem CPF válido
+     * nunca são descartadas.
+     */
+    public enum Deduplication {
+        NONE, KEEP_FIRST, KEEP_LAST;
 
-            for (CSVRecord record : parser) {
-                Map<String, String> processedRow = processRecord(record, headers);
-                processedRows.add(processedRow);
+        /**
+         * @param value "primeira" ou "ultima"; vazio desativa a deduplicação
+         */
+        public static Deduplication of(String value) {
+            if (value == null || value.isBlank()) {
+                return NONE;
             }
+            switch (value.trim().toLowerCase()) {
+                case "primeira", "first":
+                    return KEEP_FIRST;
+                case "ultima", "última", "last":
+                    return KEEP_LAST;
+                default:
+                    throw new FileProcessingException(
+                            "Modo de deduplicação inválido: " + value + " (use primeira ou ultima)");
+            }
+        }
+    }
 
-            List<String> nonEmptyColumns = getNonEmptyColumns(headers, processedRows);
-            return writeCsv(processedRows, nonEmptyColumns);
+    public CsvProcessingResult processCsv(File inputFile) {
+        return processCsv(inputFile, Deduplication.NONE);
+    }
 
+    public CsvProcessingResult processCsv(File inputFile, Deduplication deduplication) {
+        File outputFile;
+        try {
+            outputFile = File.createTempFile("formatado_", ".csv");
         } catch (IOException e) {
             log.error("Erro ao processar CSV", e);
             throw new FileProcessingException("Erro ao processar arquivo CSV", e);
         }
+        return processCsv(inputFile, outputFile, deduplication);
     }
 
-    private Map<String, String> processRecord(CSVRecord record, List<String> headers) {
-        Map<String, String> processed = new HashMap<>();
+    public CsvProcessingResult processCsv(File inputFile, File outputFile, Deduplication deduplication) {
+        return processCsv(inputFile, outputFile, deduplication, new CsvProgress());
+    }
 
-        for (String header : headers) {
-            String value = record.get(header);
-            String headerUpper = header.toUpperCase();
+    /**
+     * Processa o CSV gravando o resultado diretamente no arquivo informado,
+     * que é removido em caso de erro. O progresso de cada passagem é
+     * publicado em {@code progress}; se o cancelamento for solicitado, o
+     * processamento termina com {@link java.util.concurrent.CancellationException}.
+     */
+    public CsvProcessingResult processCsv(File inputFile, File outputFile, Deduplication deduplication,
+                                          CsvProgress progress) {
+        return processCsv(inputFile, outputFile, deduplication, false, progress);
+    }
 
-            if ("CPF".equals(headerUpper)) {
-                String cleanCpf = cpfValidator.cleanCpf(value);
-                processed.put(header, cpfValidator.isValid(cleanCpf) ? cleanCpf : "");
-            } else if ("NASCIMENTO".equals(headerUpper) || "ADMISSAO".equals(headerUpper)) {
-                try {
-                    processed.put(header, dateFormatter.convertToBrazilianFormat(value));
-                } catch (Exception e) {
-                    processed.put(header, "");
+    /**
+     * Como {@link #processCsv(File, File, Deduplication, CsvProgress)}; com
+     * {@code gzip} o arquivo de saída é gravado compactado. A entrada pode
+     * estar compactada com gzip em qualquer caso (detectado pelo conteúdo).
+     */
+    public CsvProcessingResult processCsv(File inputFile, File outputFile, Deduplication deduplication,
+                                          boolean gzip, CsvProgress progress) {
+        try {
+            progress.startPhase(CsvProgress.Phase.SCANNING);
+            ColumnScan scan = scanColumns(inputFile, deduplication, progress);
+            progress.startPhase(CsvProgress.Phase.WRITING);
+            CellStats stats = new CellStats();
+            int written = writeCsv(inputFile, outputFile, gzip, scan, stats, progress);
+
+            int duplicates = scan.duplicates().cardinality();
+            if (deduplication != Deduplication.NONE) {
+                log.info("Linhas com CPF duplicado removidas: {}", duplicates);
+            }
+
+            return CsvProcessingResult.builder()
+                    .file(outputFile)
+                    .dateFormats(scan.dateFormats())
+                    .totalRows(written + duplicates)
+                    .rowsWritten(written)
+                    .duplicatesRemoved(duplicates)
+                    .bytesRead(inputFile.length())
+                    .invalidCpfs(stats.invalidCpfs)
+                    .failedDates(stats.failedDates)
+                    .droppedColumns(scan.plan().size() - scan.nonEmpty().cardinality())
+                    .build();
+
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(outputFile);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            log.error("Erro ao processar CSV", e);
+            throw new FileProcessingException("Erro ao processar arquivo CSV", e);
+        }
+    }
+
+    /**
+     * Processa o CSV em uma única passagem, lendo da entrada e gravando na
+     * saída à medida que as linhas são transformadas, sem arquivos
+     * temporários. Como a entrada não pode ser relida, todas as colunas são
+     * mantidas (inclusive as vazias), a inferência de datas usa apenas as
+     * primeiras linhas (até csv.processing.date-inference-sample-size),
+     * mantidas em memória, e só é possível manter a primeira linha de cada
+     * CPF. A entrada pode estar compactada com gzip. A saída é descarregada,
+     * mas não fechada.
+     *
+     * @param inputLength tamanho da entrada em bytes, ou -1 se desconhecido
+     */
+    public CsvProcessingResult processCsv(InputStream input, long inputLength, OutputStream output,
+                                          Deduplication deduplication) throws IOException {
+        if (deduplication == Deduplication.KEEP_LAST) {
+            throw new FileProcessingException("O processamento em streaming permite apenas deduplicar=primeira");
+        }
+
+        CsvProgress progress = new CsvProgress();
+        // Fecha o parser e o GZIPInputStream criado aqui, mesmo se o cabeçalho falhar; a saída fica com quem chamou
+        try (Reader in = new InputStreamReader(decompress(new ProgressInputStream(input, progress)),
+                StandardCharsets.UTF_8);
+             CsvRowReader reader = CsvRowReader.of(new CSVParser(in, INPUT_FORMAT))) {
+            ColumnPlan plan = ColumnPlan.compile(reader);
+            Iterator<CsvRow> records = reader.iterator();
+
+            DatePattern[] datePatterns = new DatePattern[plan.size()];
+            if (config.isDateInference()) {
+                List<CsvRow> sample = new ArrayList<>();
+                DateSampler sampler = new DateSampler(plan, config.getDateInferenceSampleSize());
+                boolean sampling = true;
+                while (sampling && sample.size() < config.getDateInferenceSampleSize() && records.hasNext()) {
+                    CsvRow record = records.next();
+                    sample.add(record);
+                    sampling = sampler.sample(record);
                 }
-            } else if ("DEPENDENTE".equals(headerUpper)) {
-                processed.put(header, normalizeDependente(value));
-            } else {
-                processed.put(header, sanitizeField(value, headerUpper));
+                datePatterns = sampler.choosePatterns();
+                records = concat(sample.iterator(), records);
+            }
+
+            DuplicateRows duplicates = DuplicateRows.create(plan, deduplication);
+            if (duplicates != null) {
+                records = filterRows(records, (row, record) -> {
+                    long cpf = cpfValidator.pack(record.get(duplicates.sourceIndex));
+                    return !duplicates.track(cpfValidator.isValid(cpf) ? cpf : CpfValidator.INVALID);
+                });
             }
+
+            BitSet allColumns = new BitSet(plan.size());
+            allColumns.set(0, plan.size());
+            ColumnPlan selected = plan.select(allColumns, datePatterns);
+
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            CSVPrinter printer = new CSVPrinter(writer,
+                    CSVFormat.DEFAULT.withHeader(selected.headers).withDelimiter(';'));
+            writer.write('\ufeff');
+            printer.flush();
+
+            CellStats stats = new CellStats();
+            int written = writeRows(records, printer, selected, inputLength, stats, progress);
+            printer.flush();
+
+            int removed = duplicates != null ? duplicates.rows.cardinality() : 0;
+            return CsvProcessingResult.builder()
+                    .dateFormats(plan.dateFormats(datePatterns))
+                    .totalRows(written + removed)
+                    .rowsWritten(written)
+                    .duplicatesRemoved(removed)
+                    .bytesRead(progress.getBytesRead())
+                    .invalidCpfs(stats.invalidCpfs)
+                    .failedDates(stats.failedDates)
+                    .build();
         }
+    }
 
-        return processed;
+    private static Iterator<CsvRow> concat(Iterator<CsvRow> first, Iterator<CsvRow> second) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public CsvRow next() {
+                return first.hasNext() ? first.next() : second.next();
+            }
+        };
     }
 
-    private String sanitizeField(String value, String fieldName) {
-        if (value == null || value.trim().isEmpty()) {
+    private static void deleteQuietly(File file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("Não foi possível remover o arquivo temporário {}", file.getName());
+            }
+        }
+    }
+
+    /**
+     * Abre o arquivo com o tokenizador configurado (csv.processing.tokenizer).
+     * O mapeado em memória não lê arquivos compactados nem acima de 2GB;
+     * nesses casos a leitura usa o Commons CSV.
+     */
+    private CsvRowReader openReader(File inputFile, CsvProgress progress) throws IOException {
+        if (config.getTokenizer() == Tokenizer.MMAP) {
+            if (MappedCsvReader.supports(inputFile)) {
+                return new MappedCsvReader(inputFile, progress);
+            }
+            log.debug("Arquivo {} não pode ser mapeado, usando o Commons CSV", inputFile.getName());
+        }
+        // O progresso conta os bytes do arquivo (compactados), comparáveis ao tamanho em disco
+        InputStream input = decompress(new ProgressInputStream(new FileInputStream(inputFile), progress));
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        return CsvRowReader.of(new CSVParser(reader, INPUT_FORMAT));
+    }
+
+    /**
+     * Descompacta a entrada quando ela começa com a assinatura do gzip
+     * (1f 8b); caso contrário devolve os mesmos bytes, sem cópia extra.
+     */
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, GZIP_BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            return new GZIPInputStream(buffered, GZIP_BUFFER_SIZE);
+        }
+        return buffered;
+    }
+
+    /**
+     * Primeira passagem: descobre quais colunas possuem ao menos um valor
+     * após o processamento. Apenas as colunas ainda vazias são processadas
+     * e a leitura termina assim que todas estiverem marcadas (e, com a
+     * inferência de datas ativa, assim que as amostras estiverem completas).
+     * Com deduplicação o arquivo é lido inteiro para marcar as linhas com
+     * CPF repetido, e só as linhas mantidas contam para as colunas: ao
+     * manter a primeira, a linha repetida já é conhecida ao ser lida; ao
+     * manter a última, as colunas são conferidas de novo nas linhas mantidas
+     * (recheckKeptRows).
+     */
+    private ColumnScan scanColumns(File inputFile, Deduplication deduplication, CsvProgress progress)
+            throws IOException {
+        try (CsvRowReader reader = openReader(inputFile, progress)) {
+            ColumnPlan plan = ColumnPlan.compile(reader);
+            int columnCount = plan.size();
+            BitSet nonEmpty = new BitSet(columnCount);
+            DateSampler sampler = config.isDateInference()
+                    ? new DateSampler(plan, config.getDateInferenceSampleSize())
+                    : null;
+            DuplicateRows duplicates = DuplicateRows.create(plan, deduplication);
+
+            for (CsvRow record : reader) {
+                progress.recordRead();
+                plan.checkWidth(record);
+
+                boolean dropped = false;
+                if (duplicates != null) {
+                    long cpf = cpfValidator.pack(record.get(duplicates.sourceIndex));
+                    dropped = duplicates.track(cpfValidator.isValid(cpf) ? cpf : CpfValidator.INVALID);
+                }
+                if (!dropped) {
+                    for (int i = nonEmpty.nextClearBit(0); i < columnCount; i = nonEmpty.nextClearBit(i + 1)) {
+                        if (hasContent(plan, i, record)) {
+                            nonEmpty.set(i);
+                        }
+                    }
+                }
+
+                boolean sampling = sampler != null && sampler.sample(record);
+                if (duplicates == null && !sampling && nonEmpty.nextClearBit(0) >= columnCount) {
+                    break;
+                }
+            }
+
+            if (duplicates != null && duplicates.keepsLast() && !duplicates.rows.isEmpty()) {
+                nonEmpty = recheckKeptRows(inputFile, nonEmpty, duplicates.rows, progress);
+            }
+            DatePattern[] datePatterns = sampler != null ? sampler.choosePatterns() : new DatePattern[columnCount];
+            BitSet duplicateRows = duplicates != null ? duplicates.rows : new BitSet();
+            return new ColumnScan(plan, nonEmpty, datePatterns, duplicateRows);
+        }
+    }
+
+    /**
+     * Ao manter a última linha de cada CPF, as linhas descartadas só são
+     * conhecidas no fim da primeira passagem. Relê o arquivo conferindo as
+     * colunas marcadas apenas nas linhas mantidas, até que todas sejam
+     * confirmadas (em geral nas primeiras linhas).
+     *
+     * @return as colunas com conteúdo em alguma linha mantida
+     */
+    private BitSet recheckKeptRows(File inputFile, BitSet candidates, BitSet droppedRows, CsvProgress progress)
+            throws IOException {
+        BitSet pending = (BitSet) candidates.clone();
+        progress.startPhase(CsvProgress.Phase.SCANNING);
+        try (CsvRowReader reader = openReader(inputFile, progress)) {
+            ColumnPlan plan = ColumnPlan.compile(reader);
+            int row = 0;
+            for (CsvRow record : reader) {
+                progress.recordRead();
+                if (droppedRows.get(row++)) {
+                    continue;
+                }
+                for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1)) {
+                    if (hasContent(plan, i, record)) {
+                        pending.clear(i);
+                    }
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        BitSet confirmed = (BitSet) candidates.clone();
+        confirmed.andNot(pending);
+        return confirmed;
+    }
+
+    private boolean hasContent(ColumnPlan plan, int column, CsvRow record) {
+        return hasContent(transform(plan.types[column], null, record.get(plan.sourceIndexes[column])));
+    }
+
+    private String transform(ColumnType type, DatePattern datePattern, String value) {
+        switch (type) {
+            case CPF:
+                long cpf = cpfValidator.pack(value);
+                if (!cpfValidator.isValid(cpf)) {
+                    return "";
+                }
+                return value.length() == CpfValidator.DIGITS ? value : cpfValidator.toDigits(cpf);
+            case DATE:
+                String date = dateFormatter.tryConvertToBrazilianFormat(value, datePattern);
+                return date != null ? date : "";
+            case DEPENDENTE:
+                return normalizeDependente(value);
+            case TEXT_WITH_SPACES:
+                return sanitizeField(value, true);
+            default:
+                return sanitizeField(value, false);
+        }
+    }
+
+    /**
+     * Sanitiza o campo em uma única varredura: descarta tudo que não for
+     * letra ASCII, dígito ou (quando permitido) espaço, colapsa sequências
+     * de espaços e remove espaços nas pontas. Equivale ao antigo encadeamento
+     * trim/replace/replaceAll e devolve a própria entrada quando já está limpa.
+     */
+    static String sanitizeField(String value, boolean allowSpaces) {
+        if (value == null) {
             return "";
         }
+        if (isSanitized(value, allowSpaces)) {
+            return value;
+        }
 
-        String sanitized = value.trim()
-                .replace("'", "")
-                .replace("'", "")
-                .replace("'", "")
-                .replace("'", "");
+        int length = value.length();
+        char[] buffer = length <= MAX_CACHED_BUFFER ? SANITIZE_BUFFER.get() : new char[length];
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+            SANITIZE_BUFFER.set(buffer);
+        }
 
-        if (ALLOWED_SPACE_FIELDS.contains(fieldName)) {
-            sanitized = sanitized.replaceAll("[^A-Za-z0-9\\s]", "");
-            sanitized = sanitized.replaceAll("\\s+", " ").trim();
-        } else {
-            sanitized = sanitized.replaceAll("[^A-Za-z0-9]", "");
+        int size = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            byte type = charClass(c);
+            if (type == ALNUM) {
+                if (pendingSpace && size > 0) {
+                    buffer[size++] = ' ';
+                }
+                pendingSpace = false;
+                buffer[size++] = c;
+            } else if (type == SPACE && allowSpaces) {
+                pendingSpace = true;
+            }
         }
 
-        return sanitized;
+        return size == 0 ? "" : new String(buffer, 0, size);
+    }
+
+    private static boolean isSanitized(String value, boolean allowSpaces) {
+        int length = value.length();
+        char previous = ' ';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (charClass(c) != ALNUM && !(allowSpaces && c == ' ' && previous != ' ')) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != ' ' || length == 0;
+    }
+
+    private static byte charClass(char c) {
+        return c < CHAR_CLASS.length ? CHAR_CLASS[c] : OTHER;
     }
 
     private String normalizeDependente(String value) {
@@ -162,40 +557,489 @@ public class CsvProcessor {
         return "";
     }
 
-    private List<String> getNonEmptyColumns(List<String> headers, List<Map<String, String>> rows) {
-        List<String> nonEmpty = new ArrayList<>();
-        for (String header : headers) {
-            boolean hasContent = rows.stream()
-                    .anyMatch(row -> {
-                        String value = row.get(header);
-                        return value != null && !value.trim().isEmpty();
-                    });
-            if (hasContent) {
-                nonEmpty.add(header);
+    private boolean hasContent(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    /**
+     * Segunda passagem: processa novamente cada registro e grava somente
+     * as colunas marcadas como não vazias, linha a linha.
+     */
+    private int writeCsv(File inputFile, File outputFile, boolean gzip, ColumnScan scan, CellStats stats,
+                         CsvProgress progress) throws IOException {
+        try (CsvRowReader reader = openReader(inputFile, progress)) {
+            ColumnPlan plan = ColumnPlan.compile(reader).select(scan.nonEmpty(), scan.datePatterns());
+
+            OutputStream output = new FileOutputStream(outputFile);
+            if (gzip) {
+                output = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+            }
+            try (Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                 CSVPrinter printer = new CSVPrinter(writer,
+                         CSVFormat.DEFAULT.withHeader(plan.headers).withDelimiter(';'))) {
+
+                writer.write('\ufeff');
+
+                BitSet duplicates = scan.duplicates();
+                Iterator<CsvRow> records = filterRows(reader.iterator(), (row, record) -> {
+                    progress.recordRead();
+                    return !duplicates.get(row);
+                });
+                return writeRows(records, printer, plan, inputFile.length(), stats, progress);
             }
         }
-        return nonEmpty;
     }
 
-    private File writeCsv(List<Map<String, String>> rows, List<String> columns) throws IOException {
-        File outputFile = File.createTempFile("formatado_", ".csv");
+    /**
+     * Grava os registros já filtrados, em lotes paralelos quando a entrada
+     * tem ao menos csv.processing.parallel-threshold bytes (ou tamanho
+     * desconhecido, -1). As contagens de células vão para {@code stats}.
+     *
+     * @return quantidade de linhas gravadas
+     */
+    private int writeRows(Iterator<CsvRow> records, CSVPrinter printer, ColumnPlan plan, long inputLength,
+                          CellStats stats, CsvProgress progress) throws IOException {
+        if (config.isParallel() && config.getEffectiveParallelism() > 1
+                && (inputLength < 0 || inputLength >= config.getParallelThreshold().toBytes())) {
+            return writeRowsParallel(records, printer, plan, stats, progress);
+        }
 
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
-             CSVPrinter printer = new CSVPrinter(writer,
-                     CSVFormat.DEFAULT.withHeader(columns.toArray(new String[0]))
-                             .withDelimiter(';'))) {
+        int written = 0;
+        String[] values = new String[plan.size()];
+        while (records.hasNext()) {
+            readValues(records.next(), plan, values);
+            transformRow(plan, values, stats);
+            printer.printRecord((Object[]) values);
+            progress.addRowsWritten(1);
+            written++;
+        }
+        return written;
+    }
 
-            writer.write('\ufeff');
+    /**
+     * Lê os registros em lotes, transforma cada lote no pool de processamento
+     * e grava os resultados na ordem original. No máximo duas vezes o nível
+     * de paralelismo em lotes fica em memória ao mesmo tempo. Cada lote tem
+     * suas próprias contagens, somadas na thread que grava.
+     */
+    private int writeRowsParallel(Iterator<CsvRow> records, CSVPrinter printer, ColumnPlan plan,
+                                  CellStats stats, CsvProgress progress) throws IOException {
+        int batchSize = Math.max(1, config.getBatchSize());
+        int maxPending = config.getEffectiveParallelism() * 2;
+        Deque<Future<Batch>> pending = new ArrayDeque<>();
+        int written = 0;
+
+        try {
+            while (records.hasNext()) {
+                String[][] rows = readBatch(records, plan, batchSize);
+                pending.addLast(csvProcessingPool.submit(() -> {
+                    CellStats batchStats = new CellStats();
+                    for (String[] row : rows) {
+                        transformRow(plan, row, batchStats);
+                    }
+                    return new Batch(rows, batchStats);
+                }));
 
-            for (Map<String, String> row : rows) {
-                List<String> values = new ArrayList<>();
-                for (String column : columns) {
-                    values.add(row.getOrDefault(column, ""));
+                if (pending.size() >= maxPending) {
+                    written += printBatch(printer, awaitBatch(pending.removeFirst()), stats, progress);
                 }
-                printer.printRecord(values);
             }
+
+            while (!pending.isEmpty()) {
+                written += printBatch(printer, awaitBatch(pending.removeFirst()), stats, progress);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
         }
+        return written;
+    }
 
-        return outputFile;
+    private String[][] readBatch(Iterator<CsvRow> records, ColumnPlan plan, int batchSize) {
+        List<String[]> rows = new ArrayList<>(batchSize);
+        while (rows.size() < batchSize && records.hasNext()) {
+            String[] values = new String[plan.size()];
+            readValues(records.next(), plan, values);
+            rows.add(values);
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    private Batch awaitBatch(Future<Batch> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Processamento do CSV interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new FileProcessingException("Erro ao processar lote do CSV", e.getCause());
+        }
+    }
+
+    private int printBatch(CSVPrinter printer, Batch batch, CellStats stats, CsvProgress progress)
+            throws IOException {
+        for (String[] row : batch.rows()) {
+            printer.printRecord((Object[]) row);
+        }
+        stats.add(batch.stats());
+        progress.addRowsWritten(batch.rows().length);
+        return batch.rows().length;
+    }
+
+    /**
+     * Percorre os registros mantendo apenas os aceitos pelo filtro. O índice
+     * da linha começa em 0 e não conta o cabeçalho.
+     */
+    private static Iterator<CsvRow> filterRows(Iterator<CsvRow> records, RowFilter filter) {
+        return new Iterator<>() {
+            private int row;
+            private CsvRow next = advance();
+
+            private CsvRow advance() {
+                while (records.hasNext()) {
+                    CsvRow record = records.next();
+                    if (filter.keep(row++, record)) {
+                        return record;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public CsvRow next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                CsvRow current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    private void readValues(CsvRow record, ColumnPlan plan, String[] values) {
+        plan.checkWidth(record);
+        int[] sourceIndexes = plan.sourceIndexes;
+        for (int c = 0; c < sourceIndexes.length; c++) {
+            values[c] = record.get(sourceIndexes[c]);
+        }
+    }
+
+    private void transformRow(ColumnPlan plan, String[] values, CellStats stats) {
+        ColumnType[] types = plan.types;
+        DatePattern[] datePatterns = plan.datePatterns;
+        for (int c = 0; c < types.length; c++) {
+            String value = values[c];
+            String transformed = transform(types[c], datePatterns[c], value);
+            if (transformed.isEmpty() && value != null && !value.isEmpty()) {
+                stats.countBlanked(types[c]);
+            }
+            values[c] = transformed;
+        }
+    }
+
+    private enum ColumnType {
+        CPF, DATE, DEPENDENTE, TEXT_WITH_SPACES, TEXT;
+
+        static ColumnType of(String header) {
+            String headerUpper = header.toUpperCase();
+            if ("CPF".equals(headerUpper)) {
+                return CPF;
+            } else if ("NASCIMENTO".equals(headerUpper) || "ADMISSAO".equals(headerUpper)) {
+                return DATE;
+            } else if ("DEPENDENTE".equals(headerUpper)) {
+                return DEPENDENTE;
+            } else if (ALLOWED_SPACE_FIELDS.contains(headerUpper)) {
+                return TEXT_WITH_SPACES;
+            }
+            return TEXT;
+        }
+    }
+
+    /**
+     * Plano de colunas compilado uma única vez a partir do cabeçalho:
+     * para cada coluna de saída guarda o índice no registro de origem e o
+     * tipo de tratamento, evitando comparar nomes de cabeçalho por célula.
+     */
+    private static final class ColumnPlan {
+        private final String[] headers;
+        private final int[] sourceIndexes;
+        private final ColumnType[] types;
+        private final DatePattern[] datePatterns;
+        private final int recordWidth;
+
+        private ColumnPlan(String[] headers, int[] sourceIndexes, ColumnType[] types,
+                           DatePattern[] datePatterns, int recordWidth) {
+            this.headers = headers;
+            this.sourceIndexes = sourceIndexes;
+            this.types = types;
+            this.datePatterns = datePatterns;
+            this.recordWidth = recordWidth;
+        }
+
+        static ColumnPlan compile(CsvRowReader reader) {
+            List<String> names = reader.getHeaderNames();
+            Map<String, Integer> headerMap = reader.getHeaderMap();
+            int size = names.size();
+
+            String[] headers = names.toArray(new String[0]);
+            int[] sourceIndexes = new int[size];
+            ColumnType[] types = new ColumnType[size];
+            for (int i = 0; i < size; i++) {
+                // Cabeçalhos duplicados apontam para a última ocorrência, como em CSVRecord.get(String)
+                sourceIndexes[i] = headerMap.get(headers[i]);
+                types[i] = ColumnType.of(headers[i]);
+            }
+            return new ColumnPlan(headers, sourceIndexes, types, new DatePattern[size], size);
+        }
+
+        /**
+         * Mantém apenas as colunas marcadas, fixando o formato de data
+         * inferido para cada uma (null quando não há formato fixo).
+         */
+        ColumnPlan select(BitSet columns, DatePattern[] patterns) {
+            int size = columns.cardinality();
+            String[] selectedHeaders = new String[size];
+            int[] selectedIndexes = new int[size];
+            ColumnType[] selectedTypes = new ColumnType[size];
+            DatePattern[] selectedPatterns = new DatePattern[size];
+
+            int c = 0;
+            for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+                selectedHeaders[c] = headers[i];
+                selectedIndexes[c] = sourceIndexes[i];
+                selectedTypes[c] = types[i];
+                selectedPatterns[c] = patterns[i];
+                c++;
+            }
+            return new ColumnPlan(selectedHeaders, selectedIndexes, selectedTypes, selectedPatterns, recordWidth);
+        }
+
+        int size() {
+            return headers.length;
+        }
+
+        /** Formato de data de cada coluna com formato fixo, na ordem do cabeçalho. */
+        Map<String, String> dateFormats(DatePattern[] patterns) {
+            Map<String, String> formats = new LinkedHashMap<>();
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i] != null) {
+                    formats.put(headers[i], patterns[i].getPattern());
+                }
+            }
+            return formats;
+        }
+
+        void checkWidth(CsvRow record) {
+            if (record.size() < recordWidth) {
+                throw new IllegalArgumentException(String.format(
+                        "Registro %d possui %d valores, esperado %d",
+                        record.getRecordNumber(), record.size(), recordWidth));
+            }
+        }
+    }
+
+    /** Contabiliza os bytes lidos do arquivo de entrada no progresso. */
+    private static final class ProgressInputStream extends FilterInputStream {
+        private final CsvProgress progress;
+
+        ProgressInputStream(InputStream in, CsvProgress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                progress.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                progress.addBytesRead(n);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Contagens de células da 2ª passagem, sem sincronização: cada lote
+     * paralelo tem a sua e elas são somadas ao final.
+     */
+    private static final class CellStats {
+        private int invalidCpfs;
+        private int failedDates;
+
+        void countBlanked(ColumnType type) {
+            if (type == ColumnType.CPF) {
+                invalidCpfs++;
+            } else if (type == ColumnType.DATE) {
+                failedDates++;
+            }
+        }
+
+        void add(CellStats other) {
+            invalidCpfs += other.invalidCpfs;
+            failedDates += other.failedDates;
+        }
+    }
+
+    private record Batch(String[][] rows, CellStats stats) {
+    }
+
+    @FunctionalInterface
+    private interface RowFilter {
+        boolean keep(int row, CsvRow record);
+    }
+
+    private record ColumnScan(ColumnPlan plan, BitSet nonEmpty, DatePattern[] datePatterns, BitSet duplicates) {
+
+        Map<String, String> dateFormats() {
+            return plan.dateFormats(datePatterns);
+        }
+    }
+
+    /**
+     * Marca as linhas com CPF válido já visto. Para manter a primeira
+     * ocorrência basta o conjunto de CPFs; para manter a última, o mapa
+     * guarda a linha da ocorrência mais recente, que é marcada quando o
+     * CPF aparece de novo. A chave é a primeira coluna de CPF.
+     */
+    private static final class DuplicateRows {
+        private final int sourceIndex;
+        private final LongHashSet seen;
+        private final LongIntHashMap lastRow;
+        private final BitSet rows = new BitSet();
+        private int row;
+
+        private DuplicateRows(int sourceIndex, Deduplication deduplication) {
+            this.sourceIndex = sourceIndex;
+            this.seen = deduplication == Deduplication.KEEP_FIRST ? new LongHashSet() : null;
+            this.lastRow = deduplication == Deduplication.KEEP_LAST ? new LongIntHashMap() : null;
+        }
+
+        static DuplicateRows create(ColumnPlan plan, Deduplication deduplication) {
+            if (deduplication == null || deduplication == Deduplication.NONE) {
+                return null;
+            }
+            for (int i = 0; i < plan.size(); i++) {
+                if (plan.types[i] == ColumnType.CPF) {
+                    return new DuplicateRows(plan.sourceIndexes[i], deduplication);
+                }
+            }
+            log.warn("Deduplicação ignorada: o CSV não possui coluna CPF");
+            return null;
+        }
+
+        /**
+         * @param packedCpf CPF da linha, ou {@link CpfValidator#INVALID} se não for válido
+         * @return {@code true} se a linha repete um CPF anterior (apenas ao manter a primeira)
+         */
+        boolean track(long packedCpf) {
+            int current = row++;
+            if (packedCpf == CpfValidator.INVALID) {
+                return false;
+            }
+            if (seen != null) {
+                if (!seen.add(packedCpf)) {
+                    rows.set(current);
+                    return true;
+                }
+                return false;
+            }
+            int previous = lastRow.put(packedCpf, current);
+            if (previous != LongIntHashMap.NO_VALUE) {
+                rows.set(previous);
+            }
+            return false;
+        }
+
+        boolean keepsLast() {
+            return lastRow != null;
+        }
+    }
+
+    /**
+     * Amostra os primeiros valores não vazios de cada coluna de data e
+     * mantém a interseção dos formatos que reconhecem todos eles. Valores
+     * como 13/01/2020 eliminam M/d/yyyy e desfazem a ambiguidade dia/mês
+     * para a coluna inteira.
+     */
+    private static final class DateSampler {
+        private final ColumnPlan plan;
+        private final int sampleSize;
+        private final int[] candidates;
+        private final int[] sampled;
+        private final int[] matched;
+        private int pendingColumns;
+
+        DateSampler(ColumnPlan plan, int sampleSize) {
+            this.plan = plan;
+            this.sampleSize = Math.max(1, sampleSize);
+            this.candidates = new int[plan.size()];
+            this.sampled = new int[plan.size()];
+            this.matched = new int[plan.size()];
+            for (int i = 0; i < plan.size(); i++) {
+                if (plan.types[i] == ColumnType.DATE) {
+                    candidates[i] = DateFormatter.ALL_PATTERNS;
+                    pendingColumns++;
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} enquanto alguma coluna ainda precisa de amostras
+         */
+        boolean sample(CsvRow record) {
+            if (pendingColumns == 0) {
+                return false;
+            }
+            for (int i = 0; i < candidates.length; i++) {
+                if (plan.types[i] != ColumnType.DATE || sampled[i] >= sampleSize) {
+                    continue;
+                }
+                String value = record.get(plan.sourceIndexes[i]);
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+
+                int mask = DateFormatter.matchingPatterns(value);
+                if (mask != 0) {
+                    candidates[i] &= mask;
+                    matched[i]++;
+                }
+                if (++sampled[i] >= sampleSize || candidates[i] == 0) {
+                    sampled[i] = sampleSize;
+                    pendingColumns--;
+                }
+            }
+            return pendingColumns > 0;
+        }
+
+        DatePattern[] choosePatterns() {
+            DatePattern[] patterns = new DatePattern[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                if (matched[i] > 0) {
+                    patterns[i] = DateFormatter.firstPattern(candidates[i]);
+                }
+                if (patterns[i] != null) {
+                    log.debug("Formato de data inferido para a coluna {}: {}",
+                            plan.headers[i], patterns[i].getPattern());
+                }
+            }
+            return patterns;
+        }
     }
-}
\ No newline at end of file
+}
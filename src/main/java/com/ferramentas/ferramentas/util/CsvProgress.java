@@ -0,0 +1,83 @@
+package com.ferramentas.ferramentas.util;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progresso de um processamento de CSV, atualizado pela thread que lê o
+ * arquivo e consultado por outras threads (status e eventos de jobs).
+ * Os contadores recomeçam a cada passagem; só há um escritor por campo.
+ * Também carrega o pedido de cancelamento, verificado a cada registro.
+ */
+public class CsvProgress {
+
+    public enum Phase {
+        /** 1ª passagem: colunas vazias, datas e duplicados. */
+        SCANNING,
+        /** 2ª passagem: gravação do resultado. */
+        WRITING
+    }
+
+    private volatile Phase phase;
+    private volatile long phaseStartedAt;
+    private volatile long bytesRead;
+    private volatile long rowsRead;
+    private volatile long rowsWritten;
+    private volatile boolean cancelled;
+
+    void startPhase(Phase phase) {
+        this.bytesRead = 0;
+        this.rowsRead = 0;
+        this.rowsWritten = 0;
+        this.phaseStartedAt = System.nanoTime();
+        this.phase = phase;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    /**
+     * Conta um registro lido.
+     *
+     * @throws CancellationException se o cancelamento foi solicitado
+     */
+    void recordRead() {
+        if (cancelled) {
+            throw new CancellationException("Processamento do CSV cancelado");
+        }
+        rowsRead++;
+    }
+
+    void addRowsWritten(int rows) {
+        rowsWritten += rows;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /** Tempo decorrido na passagem atual, em nanossegundos. */
+    public long getPhaseElapsedNanos() {
+        return phase == null ? 0 : System.nanoTime() - phaseStartedAt;
+    }
+}
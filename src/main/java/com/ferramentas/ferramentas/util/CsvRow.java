@@ -0,0 +1,37 @@
+package com.ferramentas.ferramentas.util;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Registro de dados do CSV, independente do tokenizador que o leu. Os
+ * valores têm os espaços das pontas removidos, como no CSVParser
+ * configurado com {@code withTrim()}.
+ */
+interface CsvRow {
+
+    int size();
+
+    String get(int index);
+
+    /** Número do registro, começando em 1 na primeira linha após o cabeçalho. */
+    long getRecordNumber();
+
+    static CsvRow of(CSVRecord record) {
+        return new CsvRow() {
+            @Override
+            public int size() {
+                return record.size();
+            }
+
+            @Override
+            public String get(int index) {
+                return record.get(index);
+            }
+
+            @Override
+            public long getRecordNumber() {
+                return record.getRecordNumber();
+            }
+        };
+    }
+}
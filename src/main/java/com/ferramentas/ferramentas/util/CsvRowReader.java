@@ -0,0 +1,57 @@
+package com.ferramentas.ferramentas.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Leitor de CSV com cabeçalho na primeira linha: expõe os nomes das
+ * colunas e percorre os registros de dados uma única vez.
+ */
+interface CsvRowReader extends Closeable, Iterable<CsvRow> {
+
+    List<String> getHeaderNames();
+
+    /** Índice de cada nome de coluna; em nomes repetidos vale a última ocorrência. */
+    Map<String, Integer> getHeaderMap();
+
+    static CsvRowReader of(CSVParser parser) {
+        return new CsvRowReader() {
+            @Override
+            public List<String> getHeaderNames() {
+                return parser.getHeaderNames();
+            }
+
+            @Override
+            public Map<String, Integer> getHeaderMap() {
+                return parser.getHeaderMap();
+            }
+
+            @Override
+            public Iterator<CsvRow> iterator() {
+                Iterator<CSVRecord> records = parser.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return records.hasNext();
+                    }
+
+                    @Override
+                    public CsvRow next() {
+                        return CsvRow.of(records.next());
+                    }
+                };
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+}
@@ -14,14 +14,21 @@
  * 
  * @package     com.ferramentas.ferramentas.util
  * @component   Spring Component
- * @requires    Java Time API
- * @requires    DateTimeFormatter
- * @requires    DateTimeParseException
+ * @requires    Java Standard Library
  * 
  * ============================================================================
  * PROCESSAMENTOS REALIZADOS:
  * - Validação e limpeza de datas
  * - Conversão de datas para formato brasileiro (DD/MM/YYYY)
+ * - Leitura em uma única varredura, sem exceções para datas inválidas
+ *
+ * FORMATOS ACEITOS (em ordem de prioridade):
+ * - M/d/yyyy, MM/dd/yyyy, d/M/yyyy, dd/MM/yyyy
+ * - yyyy-MM-dd, yyyy/MM/dd, yyyyMMdd, ddMMyyyy
+ * - Dia maior que o último do mês é ajustado (31/04 → 30/04),
+ *   como no ResolverStyle.SMART do java.time
+ * - matchingPatterns/parse(texto, formato) permitem inferir e fixar
+ *   o formato de uma coluna inteira (ver CsvProcessor)
  * - Remoção de caracteres especiais perigosos
  * - Sanitização de campos conforme regras
  * 
@@ -36,54 +43,316 @@
 
 package com.ferramentas.ferramentas.util;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Arrays;
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
 public class DateFormatter {
 
-    private static final List<DateTimeFormatter> INPUT_FORMATTERS = Arrays.asList(
-            DateTimeFormatter.ofPattern("M/d/yyyy"),
-            DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-            DateTimeFormatter.ofPattern("d/M/yyyy"),
-            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-            DateTimeFormatter.ofPattern("yyyy/MM/dd"),
-            DateTimeFormatter.ofPattern("yyyyMMdd"),
-            DateTimeFormatter.ofPattern("ddMMyyyy")
-    );
+    /** Valor devolvido por {@link #parse(CharSequence)} quando a data não é reconhecida. */
+    public static final int INVALID = -1;
+
+    /**
+     * Formatos aceitos, na ordem em que são testados. M/d/yyyy também cobre
+     * MM/dd/yyyy e d/M/yyyy cobre dd/MM/yyyy.
+     */
+    public enum DatePattern {
+        MONTH_DAY_YEAR("M/d/yyyy"),
+        DAY_MONTH_YEAR("d/M/yyyy"),
+        ISO("yyyy-MM-dd"),
+        YEAR_MONTH_DAY("yyyy/MM/dd"),
+        COMPACT_YEAR_FIRST("yyyyMMdd"),
+        COMPACT_DAY_FIRST("ddMMyyyy");
+
+        private final String pattern;
+
+        DatePattern(String pattern) {
+            this.pattern = pattern;
+        }
 
-    private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        public String getPattern() {
+            return pattern;
+        }
+
+        int mask() {
+            return 1 << ordinal();
+        }
+    }
+
+    /** Máscara com todos os formatos, ponto de partida para {@link #matchingPatterns(CharSequence)}. */
+    public static final int ALL_PATTERNS = (1 << DatePattern.values().length) - 1;
+
+    private static final DatePattern[] PATTERNS = DatePattern.values();
+    private static final int MAX_GROUPS = 3;
+    private static final int MAX_NUMBER_DIGITS = 19;
 
     public String convertToBrazilianFormat(String dateString) {
         if (dateString == null || dateString.trim().isEmpty()) {
             throw new IllegalArgumentException("Data não pode estar vazia");
         }
 
-        String cleanDate = dateString.trim().replaceAll("[^0-9/\\-.]", "");
+        int date = parse(dateString);
+        if (date == INVALID) {
+            throw new IllegalArgumentException("Formato de data não reconhecido: " + dateString);
+        }
+        return format(date);
+    }
+
+    /**
+     * Converte para dd/MM/yyyy sem lançar exceções.
+     *
+     * @return a data convertida, ou {@code null} se vazia ou não reconhecida
+     */
+    public String tryConvertToBrazilianFormat(String dateString) {
+        return tryConvertToBrazilianFormat(dateString, null);
+    }
 
-        for (DateTimeFormatter formatter : INPUT_FORMATTERS) {
-            try {
-                LocalDate date = LocalDate.parse(cleanDate, formatter);
-                return date.format(OUTPUT_FORMATTER);
-            } catch (DateTimeParseException ignored) {
-            }
+    /**
+     * Converte testando primeiro apenas o formato informado (tipicamente o
+     * inferido para a coluna) e, se não casar, todos os formatos em ordem.
+     *
+     * @return a data convertida, ou {@code null} se vazia ou não reconhecida
+     */
+    public String tryConvertToBrazilianFormat(String dateString, DatePattern preferred) {
+        if (dateString == null) {
+            return null;
+        }
+        int date = preferred != null ? parse(dateString, preferred) : INVALID;
+        if (date == INVALID) {
+            date = parse(dateString);
         }
+        return date == INVALID ? null : format(date);
+    }
 
-        throw new IllegalArgumentException("Formato de data não reconhecido: " + dateString);
+    /**
+     * Acrescenta a data no formato dd/MM/yyyy ao buffer informado, permitindo
+     * reutilizá-lo entre chamadas.
+     *
+     * @return {@code false} se a data não foi reconhecida (o buffer não é alterado)
+     */
+    public boolean appendBrazilianFormat(CharSequence dateString, StringBuilder out) {
+        if (dateString == null) {
+            return false;
+        }
+        int date = parse(dateString);
+        if (date == INVALID) {
+            return false;
+        }
+        appendTwoDigits(out, day(date)).append('/');
+        appendTwoDigits(out, month(date)).append('/');
+        appendTwoDigits(out, year(date) / 100);
+        appendTwoDigits(out, year(date) % 100);
+        return true;
     }
 
     public boolean isValidDate(String dateString) {
-        try {
-            convertToBrazilianFormat(dateString);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return dateString != null && parse(dateString) != INVALID;
+    }
+
+    /**
+     * Interpreta a data em uma única varredura, testando os formatos na
+     * ordem de {@link DatePattern}.
+     *
+     * @return a data codificada como yyyyMMdd, ou {@link #INVALID}
+     */
+    public static int parse(CharSequence text) {
+        return scan(text, ALL_PATTERNS, true);
+    }
+
+    /**
+     * Interpreta a data aceitando somente o formato informado.
+     *
+     * @return a data codificada como yyyyMMdd, ou {@link #INVALID}
+     */
+    public static int parse(CharSequence text, DatePattern pattern) {
+        return scan(text, pattern.mask(), true);
+    }
+
+    /**
+     * Indica quais formatos reconhecem o texto, como máscara de bits
+     * (um bit por {@link DatePattern}); 0 se nenhum reconhece.
+     */
+    public static int matchingPatterns(CharSequence text) {
+        return scan(text, ALL_PATTERNS, false);
+    }
+
+    /**
+     * Primeiro formato (na ordem de prioridade) presente na máscara, ou
+     * {@code null} se a máscara estiver vazia.
+     */
+    public static DatePattern firstPattern(int mask) {
+        for (DatePattern pattern : PATTERNS) {
+            if ((mask & pattern.mask()) != 0) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Separa os grupos de dígitos ignorando caracteres que não sejam dígitos,
+     * '/', '-' ou '.', e testa os formatos de {@code patterns} na ordem de
+     * prioridade. Os três grupos (valor e quantidade de dígitos) ficam em
+     * variáveis locais, sem alocação por chamada.
+     *
+     * @param firstMatch {@code true} para devolver a data do primeiro formato
+     *                   que casar ({@link #INVALID} se nenhum), {@code false}
+     *                   para devolver a máscara dos formatos que casam
+     */
+    private static int scan(CharSequence text, int patterns, boolean firstMatch) {
+        int noMatch = firstMatch ? INVALID : 0;
+        long value0 = 0;
+        long value1 = 0;
+        long value2 = 0;
+        int length0 = 0;
+        int length1 = 0;
+        int length2 = 0;
+        int groups = 0;
+        char separator = 0;
+        boolean digitsStarted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (!digitsStarted) {
+                    if (groups == MAX_GROUPS) {
+                        return noMatch;
+                    }
+                    groups++;
+                    digitsStarted = true;
+                }
+                int digit = c - '0';
+                int length;
+                if (groups == 1) {
+                    length = ++length0;
+                    value0 = append(value0, digit);
+                } else if (groups == 2) {
+                    length = ++length1;
+                    value1 = append(value1, digit);
+                } else {
+                    length = ++length2;
+                    value2 = append(value2, digit);
+                }
+                if (length > MAX_NUMBER_DIGITS) {
+                    return noMatch;
+                }
+            } else if (c == '/' || c == '-') {
+                if ((separator != 0 && separator != c) || !digitsStarted) {
+                    return noMatch;
+                }
+                separator = c;
+                digitsStarted = false;
+            } else if (c == '.') {
+                return noMatch;
+            }
         }
+
+        boolean validShape = separator == 0 ? groups == 1 : groups == MAX_GROUPS && digitsStarted;
+        if (!validShape) {
+            return noMatch;
+        }
+
+        int mask = 0;
+        for (DatePattern pattern : PATTERNS) {
+            if ((patterns & pattern.mask()) == 0) {
+                continue;
+            }
+            int date = resolve(pattern, separator, value0, value1, value2, length0, length1, length2);
+            if (date != INVALID) {
+                if (firstMatch) {
+                    return date;
+                }
+                mask |= pattern.mask();
+            }
+        }
+        return firstMatch ? INVALID : mask;
+    }
+
+    /** Valores acima de 10^8 já são inválidos para qualquer campo; param de crescer. */
+    private static long append(long value, int digit) {
+        return value < 100_000_000L ? value * 10 + digit : value;
+    }
+
+    /**
+     * O ano tem exatamente 4 dígitos em todos os formatos, como no
+     * DateTimeFormatter original: "yyyy" exige ao menos 4 dígitos e, sem
+     * sinal, não aceita mais que 4.
+     */
+    private static int resolve(DatePattern pattern, char separator, long value0, long value1, long value2,
+                               int length0, int length1, int length2) {
+        switch (pattern) {
+            case MONTH_DAY_YEAR:
+                return separator == '/' && length2 == 4 ? resolve(value2, value0, value1) : INVALID;
+            case DAY_MONTH_YEAR:
+                return separator == '/' && length2 == 4 ? resolve(value2, value1, value0) : INVALID;
+            case ISO:
+                return separator == '-' && length0 == 4 && length1 == 2 && length2 == 2
+                        ? resolve(value0, value1, value2) : INVALID;
+            case YEAR_MONTH_DAY:
+                return separator == '/' && length0 == 4 && length1 == 2 && length2 == 2
+                        ? resolve(value0, value1, value2) : INVALID;
+            case COMPACT_YEAR_FIRST:
+                return separator == 0 && length0 == 8
+                        ? resolve(value0 / 10_000, value0 / 100 % 100, value0 % 100) : INVALID;
+            default:
+                return separator == 0 && length0 == 8
+                        ? resolve(value0 % 10_000, value0 / 10_000 % 100, value0 / 1_000_000) : INVALID;
+        }
+    }
+
+    /**
+     * Valida ano, mês e dia; dias além do fim do mês são ajustados para o
+     * último dia, como faz o ResolverStyle.SMART.
+     */
+    private static int resolve(long year, long month, long day) {
+        if (year < 1 || year > 9999 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        int maxDay = lengthOfMonth((int) year, (int) month);
+        return (int) year * 10_000 + (int) month * 100 + (int) Math.min(day, maxDay);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int year(int date) {
+        return date / 10_000;
+    }
+
+    private static int month(int date) {
+        return date / 100 % 100;
+    }
+
+    private static int day(int date) {
+        return date % 100;
+    }
+
+    private static String format(int date) {
+        char[] chars = {
+                digit(day(date) / 10), digit(day(date) % 10), '/',
+                digit(month(date) / 10), digit(month(date) % 10), '/',
+                digit(year(date) / 1000), digit(year(date) / 100 % 10),
+                digit(year(date) / 10 % 10), digit(year(date) % 10)
+        };
+        return new String(chars);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder out, int value) {
+        return out.append(digit(value / 10)).append(digit(value % 10));
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.ferramentas.ferramentas.util;
+
+/**
+ * Conjunto de {@code long} com endereçamento aberto (sondagem linear).
+ * As chaves ficam em um único {@code long[]}, sem objetos por elemento:
+ * com fator de carga máximo de 0,75, cerca de 11 a 21 bytes por chave.
+ * O valor {@link #EMPTY} marca posições livres e é guardado à parte.
+ */
+public final class LongHashSet {
+
+    static final long EMPTY = 0L;
+    static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    /**
+     * @return {@code true} se a chave ainda não estava no conjunto
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+
+        int slot = slot(key, mask);
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > maxSize(mask)) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slot(key, mask);
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] old = keys;
+        allocate(old.length * 2);
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key, mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Menor potência de dois que comporta a quantidade com carga até 0,75. */
+    static int tableSize(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (needed > 1 << 30) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    static int maxSize(int mask) {
+        return (int) ((mask + 1L) * 3 / 4);
+    }
+
+    /** Espalha os bits da chave (fmix64 do MurmurHash3) antes de aplicar a máscara. */
+    static int slot(long key, int mask) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
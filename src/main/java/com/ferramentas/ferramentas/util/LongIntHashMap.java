@@ -0,0 +1,101 @@
+package com.ferramentas.ferramentas.util;
+
+/**
+ * Mapa de {@code long} para {@code int} com endereçamento aberto, no mesmo
+ * esquema de {@link LongHashSet}: chaves e valores em arrays paralelos,
+ * sem objetos por entrada (cerca de 16 a 32 bytes por chave).
+ */
+public final class LongIntHashMap {
+
+    /** Devolvido por {@link #put} e {@link #get} quando a chave não existe. */
+    public static final int NO_VALUE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int emptyKeyValue = NO_VALUE;
+
+    public LongIntHashMap() {
+        this(LongHashSet.MIN_CAPACITY);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(LongHashSet.tableSize(expectedSize));
+    }
+
+    /**
+     * Associa o valor à chave.
+     *
+     * @return o valor anterior, ou {@link #NO_VALUE}
+     */
+    public int put(long key, int value) {
+        if (key == LongHashSet.EMPTY) {
+            int previous = emptyKeyValue;
+            if (previous == NO_VALUE) {
+                size++;
+            }
+            emptyKeyValue = value;
+            return previous;
+        }
+
+        int slot = LongHashSet.slot(key, mask);
+        long current;
+        while ((current = keys[slot]) != LongHashSet.EMPTY) {
+            if (current == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > LongHashSet.maxSize(mask)) {
+            rehash();
+        }
+        return NO_VALUE;
+    }
+
+    public int get(long key) {
+        if (key == LongHashSet.EMPTY) {
+            return emptyKeyValue;
+        }
+        int slot = LongHashSet.slot(key, mask);
+        long current;
+        while ((current = keys[slot]) != LongHashSet.EMPTY) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != LongHashSet.EMPTY) {
+                int slot = LongHashSet.slot(key, mask);
+                while (keys[slot] != LongHashSet.EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+}
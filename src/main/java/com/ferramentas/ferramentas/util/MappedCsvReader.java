@@ -0,0 +1,435 @@
+package com.ferramentas.ferramentas.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tokenizador de CSV sobre o arquivo mapeado em memória, alternativa ao
+ * Commons CSV no processamento de arquivos (csv.processing.tokenizer=mmap).
+ *
+ * Delimitadores e aspas são localizados nos bytes UTF-8 brutos, oito bytes
+ * por vez (SWAR); cada registro guarda apenas as posições dos campos e a
+ * String de um campo só é criada quando ele é lido. Colunas que o plano
+ * não usa nunca são decodificadas.
+ *
+ * Segue a mesma semântica do CSVParser com
+ * {@code CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim()}: vírgula
+ * como delimitador, campos entre aspas com aspas duplicadas como escape e
+ * quebras de linha internas, fim de linha LF, CR ou CRLF, linhas vazias
+ * ignoradas e espaços das pontas removidos de cada valor.
+ *
+ * Arquivos compactados ou maiores que 2GB não podem ser mapeados em um
+ * único buffer; para eles {@link #supports(File)} devolve {@code false}.
+ */
+final class MappedCsvReader implements CsvRowReader {
+
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long DELIMITERS = ONES * DELIMITER;
+    private static final long QUOTES = ONES * QUOTE;
+    private static final long LFS = ONES * LF;
+    private static final long CRS = ONES * CR;
+
+    private static final int MAX_CACHED_BUFFER = 8192;
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private final CsvProgress progress;
+    private final List<String> headerNames;
+    private final Map<String, Integer> headerMap;
+
+    /** Posições [início, fim) dos campos do registro em leitura. */
+    private int[] fields = new int[32];
+    private int fieldCount;
+    private int position;
+    private int reportedPosition;
+    private long recordNumber;
+    private boolean iterated;
+
+    MappedCsvReader(File file, CsvProgress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.limit = buffer.limit();
+        this.progress = progress;
+
+        this.headerNames = new ArrayList<>();
+        this.headerMap = new LinkedHashMap<>();
+        if (readRecord()) {
+            String[] names = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                names[i] = value(buffer, fields[2 * i], fields[2 * i + 1]);
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].isBlank()) {
+                    throw new IllegalArgumentException("A header name is missing in " + Arrays.toString(names));
+                }
+                headerMap.put(names[i], i);
+                headerNames.add(names[i]);
+            }
+        }
+        reportProgress();
+    }
+
+    /** Indica se o arquivo pode ser lido por este tokenizador. */
+    static boolean supports(File file) throws IOException {
+        if (file.length() > Integer.MAX_VALUE) {
+            return false;
+        }
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int first = input.read();
+            int second = input.read();
+            return first != (GZIPInputStream.GZIP_MAGIC & 0xff) || second != (GZIPInputStream.GZIP_MAGIC >>> 8);
+        }
+    }
+
+    @Override
+    public List<String> getHeaderNames() {
+        return headerNames;
+    }
+
+    @Override
+    public Map<String, Integer> getHeaderMap() {
+        return headerMap;
+    }
+
+    @Override
+    public Iterator<CsvRow> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("Os registros só podem ser percorridos uma vez");
+        }
+        iterated = true;
+
+        return new Iterator<>() {
+            private CsvRow next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && readRecord()) {
+                    next = new MappedRow(buffer, Arrays.copyOf(fields, 2 * fieldCount), ++recordNumber);
+                    reportProgress();
+                }
+                return next != null;
+            }
+
+            @Override
+            public CsvRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                CsvRow current = next;
+                next = null;
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        // O mapeamento é liberado pelo coletor; o canal já foi fechado na abertura
+    }
+
+    private void reportProgress() {
+        progress.addBytesRead(position - reportedPosition);
+        reportedPosition = position;
+    }
+
+    /**
+     * Lê o próximo registro a partir de {@link #position}, preenchendo
+     * {@link #fields}. Campos entre aspas com aspas duplicadas no conteúdo
+     * são marcados com o fim negado ({@code ~fim}).
+     *
+     * @return {@code false} no fim do arquivo
+     */
+    private boolean readRecord() {
+        int pos = position;
+        while (pos < limit && isEndOfLine(buffer.get(pos))) {
+            pos++;
+        }
+        if (pos >= limit) {
+            position = limit;
+            return false;
+        }
+
+        fieldCount = 0;
+        while (true) {
+            if (pos >= limit) {
+                // Delimitador no fim do arquivo: ainda há um campo vazio
+                addField(pos, pos);
+                break;
+            }
+
+            byte b = buffer.get(pos);
+            if (b == QUOTE) {
+                pos = readQuoted(pos);
+                if (pos >= limit) {
+                    break;
+                }
+                b = buffer.get(pos);
+            } else {
+                int end = findSeparator(pos);
+                addField(pos, end);
+                pos = end;
+                if (pos >= limit) {
+                    break;
+                }
+                b = buffer.get(pos);
+            }
+
+            if (b == DELIMITER) {
+                pos++;
+            } else {
+                pos = skipEndOfLine(pos);
+                break;
+            }
+        }
+
+        position = pos;
+        return true;
+    }
+
+    /**
+     * Lê um campo entre aspas que começa em {@code start} e devolve a
+     * posição do delimitador ou fim de linha que o encerra (ou do fim do
+     * arquivo). Entre a aspa final e o delimitador só são aceitos espaços.
+     */
+    private int readQuoted(int start) {
+        int pos = start + 1;
+        boolean escaped = false;
+        while (true) {
+            pos = findQuote(pos);
+            if (pos >= limit) {
+                throw malformed("(startline " + lineNumber(start) + ") EOF reached before encapsulated token finished");
+            }
+            if (pos + 1 < limit && buffer.get(pos + 1) == QUOTE) {
+                escaped = true;
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+        addField(start + 1, escaped ? ~pos : pos);
+
+        pos++;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == DELIMITER || isEndOfLine(b)) {
+                break;
+            }
+            int width = whitespaceWidth(pos);
+            if (width == 0) {
+                throw malformed("(line " + lineNumber(pos) + ") invalid char between encapsulated token and delimiter");
+            }
+            pos += width;
+        }
+        return pos;
+    }
+
+    private void addField(int start, int end) {
+        if (2 * fieldCount + 2 > fields.length) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+        fields[2 * fieldCount] = start;
+        fields[2 * fieldCount + 1] = end;
+        fieldCount++;
+    }
+
+    private int skipEndOfLine(int pos) {
+        if (buffer.get(pos) == CR && pos + 1 < limit && buffer.get(pos + 1) == LF) {
+            return pos + 2;
+        }
+        return pos + 1;
+    }
+
+    /** Posição do próximo delimitador, CR ou LF a partir de {@code pos}, ou o fim do arquivo. */
+    private int findSeparator(int pos) {
+        while (pos + Long.BYTES <= limit) {
+            long word = buffer.getLong(pos);
+            long found = zeroBytes(word ^ DELIMITERS) | zeroBytes(word ^ LFS) | zeroBytes(word ^ CRS);
+            if (found != 0) {
+                return pos + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+            pos += Long.BYTES;
+        }
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == DELIMITER || isEndOfLine(b)) {
+                return pos;
+            }
+            pos++;
+        }
+        return limit;
+    }
+
+    /** Posição da próxima aspa a partir de {@code pos}, ou o fim do arquivo. */
+    private int findQuote(int pos) {
+        while (pos + Long.BYTES <= limit) {
+            long found = zeroBytes(buffer.getLong(pos) ^ QUOTES);
+            if (found != 0) {
+                return pos + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+            pos += Long.BYTES;
+        }
+        while (pos < limit && buffer.get(pos) != QUOTE) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Marca o bit alto de cada byte zero da palavra. Pode haver falsos
+     * positivos apenas acima do primeiro byte zero, então o bit marcado
+     * mais baixo é sempre exato.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGHS;
+    }
+
+    private static boolean isEndOfLine(byte b) {
+        return b == LF || b == CR;
+    }
+
+    /**
+     * Tamanho em bytes do caractere de espaço ({@link Character#isWhitespace})
+     * na posição, ou 0 se não for espaço.
+     */
+    private int whitespaceWidth(int pos) {
+        int b = buffer.get(pos) & 0xff;
+        if (b < 0x80) {
+            return Character.isWhitespace(b) ? 1 : 0;
+        }
+        int width;
+        int codePoint;
+        if ((b & 0xe0) == 0xc0) {
+            width = 2;
+            codePoint = b & 0x1f;
+        } else if ((b & 0xf0) == 0xe0) {
+            width = 3;
+            codePoint = b & 0x0f;
+        } else {
+            return 0;
+        }
+        if (pos + width > limit) {
+            return 0;
+        }
+        for (int i = 1; i < width; i++) {
+            int next = buffer.get(pos + i) & 0xff;
+            if ((next & 0xc0) != 0x80) {
+                return 0;
+            }
+            codePoint = (codePoint << 6) | (next & 0x3f);
+        }
+        return Character.isWhitespace(codePoint) ? width : 0;
+    }
+
+    /** Linha (a partir de 1) da posição, calculada só para mensagens de erro. */
+    private int lineNumber(int pos) {
+        int line = 1;
+        for (int i = 0; i < pos; i++) {
+            byte b = buffer.get(i);
+            if (b == LF || (b == CR && (i + 1 >= limit || buffer.get(i + 1) != LF))) {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    private static UncheckedIOException malformed(String message) {
+        IOException e = new IOException(message);
+        return new UncheckedIOException(e.getClass().getSimpleName() + " reading next record: " + e, e);
+    }
+
+    /**
+     * Decodifica o campo [start, end) sem os espaços das pontas; com o fim
+     * negado, desfaz as aspas duplicadas.
+     */
+    private static String value(MappedByteBuffer buffer, int start, int end) {
+        boolean escaped = end < 0;
+        if (escaped) {
+            end = ~end;
+        }
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+
+        byte[] bytes = length <= MAX_CACHED_BUFFER ? DECODE_BUFFER.get() : new byte[length];
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            DECODE_BUFFER.set(bytes);
+        }
+        buffer.get(start, bytes, 0, length);
+
+        if (escaped) {
+            int size = 0;
+            for (int i = 0; i < length; i++) {
+                bytes[size++] = bytes[i];
+                if (bytes[i] == QUOTE) {
+                    i++;
+                }
+            }
+            length = size;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static final class MappedRow implements CsvRow {
+        private final MappedByteBuffer buffer;
+        private final int[] fields;
+        private final long recordNumber;
+
+        MappedRow(MappedByteBuffer buffer, int[] fields, long recordNumber) {
+            this.buffer = buffer;
+            this.fields = fields;
+            this.recordNumber = recordNumber;
+        }
+
+        @Override
+        public int size() {
+            return fields.length / 2;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new ArrayIndexOutOfBoundsException(
+                        "Index " + index + " out of bounds for length " + size());
+            }
+            return value(buffer, fields[2 * index], fields[2 * index + 1]);
+        }
+
+        @Override
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ferramentas.ferramentas.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas por chave, sem locks. Cada balde é um único AtomicLong
+ * com o instante teórico da próxima chegada (GCRA): uma requisição é
+ * aceita se esse instante não passou de {@code agora + tolerância} e o
+ * avança em um intervalo de emissão via compareAndSet. É equivalente a um
+ * balde de capacidade {@code burst} reposto a {@code rate} fichas por
+ * segundo, sem thread de reposição e sem guardar frações de ficha.
+ */
+public class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Taxa e rajada devem ser positivas");
+        }
+        this.emissionIntervalNanos = Math.max(1, Math.round(1e9 / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Consome uma ficha do balde da chave.
+     *
+     * @return 0 se a ficha foi concedida, ou os nanossegundos até a próxima ficha
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            long start = arrival - now < 0 ? now : arrival;
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove os baldes cheios (clientes sem requisições há pelo menos o tempo
+     * de reposição completa); recriá-los dá o mesmo resultado.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
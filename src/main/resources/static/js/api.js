@@ -157,12 +157,22 @@ class ApiClient {
     };
 
     csv = {
-        process: (file, onProgress) => {
+        process: (file, onProgress, deduplicar = '') => {
             const formData = new FormData();
             formData.append('file', file);
+            if (deduplicar) formData.append('deduplicar', deduplicar);
             return this.postFile('/csv/processar', formData, onProgress);
         },
-        download: (fileName) => this.downloadFile(`/csv/download/${fileName}`, fileName)
+        download: (fileName) => this.downloadFile(`/csv/download/${fileName}`, fileName),
+        submitJob: (file, onProgress, deduplicar = '') => {
+            const formData = new FormData();
+            formData.append('file', file);
+            if (deduplicar) formData.append('deduplicar', deduplicar);
+            return this.postFile('/csv/jobs', formData, onProgress);
+        },
+        jobStatus: (id) => this.get(`/csv/jobs/${id}`),
+        jobEvents: (id) => new EventSource(`${this.baseUrl}/csv/jobs/${id}/eventos`),
+        cancelJob: (id) => this.request(`/csv/jobs/${id}`, { method: 'DELETE' })
     };
 
     comprovante = {
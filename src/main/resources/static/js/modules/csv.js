@@ -33,6 +33,7 @@ class CsvModule {
         this.loading = document.getElementById('loading');
         this.result = document.getElementById('result');
         this.progress = document.getElementById('progress');
+        this.dedupeSelect = document.getElementById('dedupeSelect');
 
         this.init();
     }
@@ -61,8 +62,9 @@ class CsvModule {
     handleFile(file) {
         if (!file) return;
 
-        if (!file.name.toLowerCase().endsWith('.csv')) {
-            toast.error('Apenas arquivos CSV são permitidos');
+        const name = file.name.toLowerCase();
+        if (!name.endsWith('.csv') && !name.endsWith('.csv.gz')) {
+            toast.error('Apenas arquivos CSV (.csv ou .csv.gz) são permitidos');
             return;
         }
 
@@ -110,14 +112,20 @@ class CsvModule {
 
         const progressBar = new Progress(this.progress);
         progressBar.reset();
+        this.progress?.classList.remove('hidden');
 
         try {
-            const response = await api.csv.process(this.selectedFile, (percent) => {
+            this.setProgressLabel('Enviando arquivo...', 0);
+            const response = await api.csv.submitJob(this.selectedFile, (percent) => {
                 progressBar.set(percent);
-            });
+                this.setProgressLabel('Enviando arquivo...', percent);
+            }, this.dedupeSelect?.value);
+
+            progressBar.reset();
+            const status = await this.followJob(response.data.id, progressBar);
 
             progressBar.complete();
-            this.showResult(response.data);
+            this.showResult(status.resultado);
             toast.success('CSV processado com sucesso!');
         } catch (error) {
             toast.error('Erro ao processar CSV: ' + error.message);
@@ -126,6 +134,76 @@ class CsvModule {
         }
     }
 
+    /**
+     * Acompanha o job pelos eventos SSE do servidor; se a conexão cair,
+     * consulta o status periodicamente até o job terminar.
+     */
+    followJob(jobId, progressBar) {
+        return new Promise((resolve, reject) => {
+            let settled = false;
+
+            const update = (status) => {
+                if (settled) return;
+                progressBar.set(status.percentual);
+                this.setProgressLabel(this.describePhase(status), status.percentual);
+
+                if (status.fase === 'DONE') {
+                    settled = true;
+                    resolve(status);
+                } else if (status.fase === 'FAILED') {
+                    settled = true;
+                    reject(new Error(status.erro || 'Falha no processamento'));
+                } else if (status.fase === 'CANCELLED') {
+                    settled = true;
+                    reject(new Error('Processamento cancelado'));
+                }
+            };
+
+            const poll = async () => {
+                try {
+                    const response = await api.csv.jobStatus(jobId);
+                    update(response.data);
+                    if (!settled) setTimeout(poll, 1000);
+                } catch (error) {
+                    settled = true;
+                    reject(error);
+                }
+            };
+
+            const events = api.csv.jobEvents(jobId);
+            events.addEventListener('progresso', (e) => {
+                update(JSON.parse(e.data));
+                if (settled) events.close();
+            });
+            events.onerror = () => {
+                events.close();
+                if (!settled) poll();
+            };
+        });
+    }
+
+    describePhase(status) {
+        switch (status.fase) {
+            case 'QUEUED':
+                return 'Aguardando na fila...';
+            case 'SCANNING':
+                return `Analisando colunas (${status.linhasLidas} linhas)...`;
+            case 'WRITING':
+                return status.etaSegundos != null
+                    ? `Gravando linhas (restam ~${status.etaSegundos}s)...`
+                    : 'Gravando linhas...';
+            default:
+                return 'Processando arquivo...';
+        }
+    }
+
+    setProgressLabel(text, percent) {
+        const label = this.progress?.querySelector('.progress-label span');
+        const percentLabel = document.getElementById('progressPercent');
+        if (label) label.textContent = text;
+        if (percentLabel) percentLabel.textContent = `${Math.round(percent)}%`;
+    }
+
     showResult(data) {
         const resultDiv = this.result;
         if (resultDiv) {
@@ -136,6 +214,7 @@ class CsvModule {
                     </h3>
                     <p><strong>Arquivo:</strong> ${data.fileName}</p>
                     <p><strong>Linhas processadas:</strong> ${data.linhasProcessadas}</p>
+                    ${data.linhasDuplicadasRemovidas ? `<p><strong>Linhas com CPF duplicado removidas:</strong> ${data.linhasDuplicadasRemovidas}</p>` : ''}
                     <button class="btn btn-primary" onclick="csvModule.download('${data.fileName}')">
                         ⬇️ Baixar CSV Formatado
                     </button>
@@ -0,0 +1,182 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Geradores de dados sintéticos para os benchmarks. Todos recebem um
+ * {@link Random} com semente fixa, então cada execução mede exatamente os
+ * mesmos dados e os resultados podem ser comparados entre versões.
+ */
+final class BenchmarkData {
+
+    /** Colunas de um cadastro de funcionários, incluindo todas as que aceitam espaços. */
+    static final String[] ROSTER_HEADERS = {
+            "MATRICULA", "NOME", "CPF", "NASCIMENTO", "ADMISSAO", "DEPENDENTE", "PAI", "MAE",
+            "DEPARTAMENTO", "DESCRICAO_CENTRO_CUSTO", "DESCRICAO_ORGAO", "DESCRICAO_REGIONAL",
+            "DESCRICAO_SETOR", "CARGO", "REFERENCIA", "OBSERVACAO", "CODIGO_LEGADO"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Maria", "José", "Ana", "João", "Antônio", "Francisca", "Carlos", "Paulo", "Adriana", "Lucas"
+    };
+    private static final String[] LAST_NAMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes"
+    };
+    private static final String[] DEPARTMENTS = {
+            "Recursos Humanos", "Financeiro", "Tecnologia da Informação", "Operações", "Jurídico"
+    };
+    private static final String[] ROLES = {
+            "Analista Jr.", "Analista Pleno", "Coordenador(a)", "Assistente Administrativo", "Gerente"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /** CPF válido, só com dígitos. */
+    static String validCpf(Random random) {
+        int[] digits = new int[11];
+        do {
+            for (int i = 0; i < 9; i++) {
+                digits[i] = random.nextInt(10);
+            }
+        } while (allEqual(digits));
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    /** CPF com 11 dígitos e dígito verificador errado. */
+    static String invalidCpf(Random random) {
+        String cpf = validCpf(random);
+        char last = cpf.charAt(10);
+        return cpf.substring(0, 10) + (char) ('0' + (last - '0' + 1 + random.nextInt(9)) % 10);
+    }
+
+    /** CPF válido no formato XXX.XXX.XXX-XX. */
+    static String formattedCpf(Random random) {
+        String cpf = validCpf(random);
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    /** Mistura de CPFs: metade válidos, um quarto inválidos e um quarto formatados. */
+    static String mixedCpf(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0, 1 -> validCpf(random);
+            case 2 -> invalidCpf(random);
+            default -> formattedCpf(random);
+        };
+    }
+
+    /** Data válida em um dos formatos aceitos pelo DateFormatter, escolhido ao acaso. */
+    static String mixedDate(Random random) {
+        int year = 1950 + random.nextInt(75);
+        int month = 1 + random.nextInt(12);
+        int day = 1 + random.nextInt(28);
+        return switch (random.nextInt(6)) {
+            case 0 -> String.format("%d/%d/%d", month, day, year);
+            case 1 -> String.format("%02d/%02d/%d", day, month, year);
+            case 2 -> String.format("%d-%02d-%02d", year, month, day);
+            case 3 -> String.format("%d/%02d/%02d", year, month, day);
+            case 4 -> String.format("%d%02d%02d", year, month, day);
+            default -> String.format("%02d%02d%d", day, month, year);
+        };
+    }
+
+    /**
+     * Grava um CSV de cadastro com {@code rows} linhas. Os valores imitam
+     * dados reais: nomes com acentos e espaços extras, CPFs formatados ou
+     * inválidos, datas em formatos variados, campos entre aspas e algumas
+     * colunas vazias.
+     */
+    static void writeRoster(Path file, int rows, Random random) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", ROSTER_HEADERS));
+            writer.write("\r\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(String.valueOf(100_000 + i));
+                writer.write(',');
+                writer.write(" " + name(random) + "  ");
+                writer.write(',');
+                writer.write(mixedCpf(random));
+                writer.write(',');
+                writer.write(mixedDate(random));
+                writer.write(',');
+                writer.write(random.nextInt(20) == 0 ? "" : mixedDate(random));
+                writer.write(',');
+                writer.write(random.nextInt(3) == 0 ? "dependente" : "Titular");
+                writer.write(',');
+                writer.write(name(random));
+                writer.write(',');
+                writer.write(name(random));
+                writer.write(',');
+                writer.write(pick(DEPARTMENTS, random));
+                writer.write(',');
+                writer.write("\"Centro de Custo " + random.nextInt(50) + ", Sede\"");
+                writer.write(',');
+                writer.write("Órgão Central");
+                writer.write(',');
+                writer.write("Regional " + (char) ('A' + random.nextInt(5)));
+                writer.write(',');
+                writer.write("Setor " + random.nextInt(30));
+                writer.write(',');
+                writer.write(pick(ROLES, random));
+                writer.write(',');
+                writer.write("Ref. " + random.nextInt(12) + "/" + (2000 + random.nextInt(25)));
+                writer.write(',');
+                writer.write(random.nextInt(10) == 0 ? "\"Afastado; retorno previsto\"" : "");
+                writer.write(',');
+                writer.write("");
+                writer.write("\r\n");
+            }
+        }
+    }
+
+    /** Retorno da autorizadora no formato recebido pelo gerador de comprovantes. */
+    static String comprovanteJson(Random random) {
+        StringBuilder mensagem = new StringBuilder("\\r\\n FERRAMENTAS CARD - UTEIS\\r\\n");
+        mensagem.append(" PROTOCOLO ").append(String.format("%010d", random.nextInt(1_000_000_000))).append("\\r\\n");
+        for (int i = 0; i < 20; i++) {
+            mensagem.append(" ITEM ").append(i).append(": R$ ")
+                    .append(random.nextInt(1000)).append(',').append(String.format("%02d", random.nextInt(100)))
+                    .append("\\r\\n");
+        }
+        return "({'mensagem': [{'codigo_retorno': 200, 'mensagem': '" + mensagem
+                + "', 'codigo_autorizacao': '000006'}]}, 200)";
+    }
+
+    private static String name(Random random) {
+        return pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random) + " " + pick(LAST_NAMES, random);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int checkDigit(int[] digits, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        int rest = sum % 11;
+        return rest < 2 ? 0 : 11 - rest;
+    }
+
+    private static boolean allEqual(int[] digits) {
+        for (int i = 1; i < 9; i++) {
+            if (digits[i] != digits[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ferramentas.ferramentas.dto.ComprovanteRequest;
+import com.ferramentas.ferramentas.service.ComprovanteService;
+import com.ferramentas.ferramentas.service.FileService;
+import com.ferramentas.ferramentas.util.Bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Geração do PDF de um comprovante com 20 itens, do JSON de retorno aos bytes (passando pelo bulkhead). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ComprovanteServiceBenchmark {
+
+    private Bulkhead bulkhead;
+    private ComprovanteService comprovanteService;
+    private ComprovanteRequest request;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("comprovante", 1, 1, registry);
+        // O benchmark só gera comprovantes avulsos: o bulkhead e o staging do lote não são usados
+        comprovanteService = new ComprovanteService(registry, bulkhead, bulkhead, JsonMapper.shared(),
+                new FileService());
+        request = new ComprovanteRequest(BenchmarkData.comprovanteJson(new Random(42)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Benchmark
+    public byte[] generatePdf() {
+        return comprovanteService.generatePdf(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ComprovanteServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
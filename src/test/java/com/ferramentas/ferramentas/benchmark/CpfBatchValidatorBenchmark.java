@@ -0,0 +1,88 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ferramentas.ferramentas.util.CpfBatchValidator;
+import com.ferramentas.ferramentas.util.CpfDigitBatch;
+import com.ferramentas.ferramentas.util.CpfValidator;
+
+/**
+ * Compara a validação CPF a CPF com a validação em lote (Vector API quando
+ * o módulo jdk.incubator.vector está carregado).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CpfBatchValidatorBenchmark {
+
+    @Param({"4096"})
+    private int size;
+
+    private final CpfValidator cpfValidator = new CpfValidator();
+    private final CpfBatchValidator batchValidator = new CpfBatchValidator();
+
+    private String[] cpfs;
+    private CpfDigitBatch batch;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cpfs = new String[size];
+        for (int i = 0; i < size; i++) {
+            cpfs[i] = String.format("%011d", random.nextLong(100_000_000_000L));
+        }
+        batch = new CpfDigitBatch(size);
+        for (String cpf : cpfs) {
+            batch.add(cpf);
+        }
+    }
+
+    @Benchmark
+    public void perCpf(Blackhole blackhole) {
+        for (String cpf : cpfs) {
+            blackhole.consume(cpfValidator.isValid(cpfValidator.pack(cpf)));
+        }
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        batchValidator.validate(batch);
+        blackhole.consume(batch.isValid(size - 1));
+    }
+
+    @Benchmark
+    public void batchWithParsing(Blackhole blackhole) {
+        batch.clear();
+        for (String cpf : cpfs) {
+            batch.add(cpf);
+        }
+        batchValidator.validate(batch);
+        blackhole.consume(batch.isValid(size - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CpfBatchValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
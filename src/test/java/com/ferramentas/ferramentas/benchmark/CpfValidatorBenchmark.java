@@ -0,0 +1,80 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ferramentas.ferramentas.util.CpfValidator;
+
+/**
+ * Validação e formatação de CPF isolados, sobre CPFs válidos, inválidos,
+ * formatados ou uma mistura dos três.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CpfValidatorBenchmark {
+
+    @Param({"valid", "invalid", "formatted", "mixed"})
+    private String kind;
+
+    private static final int SIZE = 1024;
+
+    private final CpfValidator cpfValidator = new CpfValidator();
+    private String[] cpfs;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cpfs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            cpfs[i] = switch (kind) {
+                case "valid" -> BenchmarkData.validCpf(random);
+                case "invalid" -> BenchmarkData.invalidCpf(random);
+                case "formatted" -> BenchmarkData.formattedCpf(random);
+                default -> BenchmarkData.mixedCpf(random);
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void isValid(Blackhole blackhole) {
+        for (String cpf : cpfs) {
+            blackhole.consume(cpfValidator.isValid(cpf));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void format(Blackhole blackhole) {
+        for (String cpf : cpfs) {
+            blackhole.consume(cpfValidator.format(cpf));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CpfValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,320 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Regressão de escala do POST /csv/processar: gera um cadastro com
+ * 1 milhão de linhas (large.rows) e o envia pela rede ao servidor embutido,
+ * no mesmo processo, como multipart e em modo stream. Em cada caso confere:
+ * - o pico de heap vivo (medido após cada coleta) abaixo de large.max-heap-mb;
+ * - a vazão acima de large.min-rows-per-second;
+ * - nenhum arquivo temporário esquecido em java.io.tmpdir ou no staging.
+ *
+ * Fica fora do {@code mvn test}; roda com heap limitado pelo perfil:
+ * {@code mvn -Plarge-files test}.
+ */
+@Tag("large")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.servlet.multipart.max-file-size=2GB",
+        "spring.servlet.multipart.max-request-size=2GB",
+        "file.upload-dir=target/large-file-storage",
+        "csv.cache.enabled=false",
+        "file.housekeeping.enabled=false",
+        "logging.level.com.ferramentas=INFO"
+})
+class CsvLargeFileRegressionTest {
+
+    private static final int ROWS = Integer.getInteger("large.rows", 1_000_000);
+    private static final long MAX_HEAP_BYTES = Long.getLong("large.max-heap-mb", 128) * 1024 * 1024;
+    private static final long MIN_ROWS_PER_SECOND = Long.getLong("large.min-rows-per-second", 20_000);
+
+    /** Prefixos dos arquivos temporários criados pelo CsvService e pelo CsvProcessor. */
+    private static final List<String> TEMP_PREFIXES = List.of("formatado_", "upload_", "chunked_");
+
+    private static Path input;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void generateInput() throws IOException {
+        Path directory = Files.createDirectories(Paths.get("target", "large-file-input"));
+        input = directory.resolve("cadastro_" + ROWS + ".csv");
+        if (!Files.exists(input)) {
+            BenchmarkData.writeRoster(input, ROWS, new Random(42));
+        }
+    }
+
+    @AfterAll
+    static void removeInput() throws IOException {
+        Files.deleteIfExists(input);
+    }
+
+    @Test
+    void multipartUploadStaysWithinBudget() throws Exception {
+        String boundary = "----" + UUID.randomUUID();
+        HttpRequest request = HttpRequest.newBuilder(uri("/csv/processar"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofString("--" + boundary + "\r\n"
+                                + "Content-Disposition: form-data; name=\"file\"; filename=\"cadastro.csv\"\r\n"
+                                + "Content-Type: text/csv\r\n\r\n"),
+                        HttpRequest.BodyPublishers.ofFile(input),
+                        HttpRequest.BodyPublishers.ofString("\r\n--" + boundary + "--\r\n")))
+                .build();
+
+        Measurement measurement = measure(() -> {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+            JsonNode data = jsonMapper.readTree(response.body()).get("data");
+            Files.deleteIfExists(Paths.get(uploadDir).resolve(data.get("fileName").asString()));
+            return data.get("linhasProcessadas").asLong();
+        });
+
+        assertEquals(ROWS, measurement.rows());
+        measurement.assertWithinBudget("multipart");
+    }
+
+    /**
+     * No modo stream a resposta começa enquanto o corpo ainda é enviado; o
+     * HttpClient do JDK só lê a resposta depois de enviar tudo, então aqui
+     * o envio e a leitura correm em paralelo sobre um socket simples.
+     */
+    @Test
+    void streamModeStaysWithinBudget() throws Exception {
+        Measurement measurement = measure(() -> {
+            try (Socket socket = new Socket("localhost", port)) {
+                Thread sender = Thread.ofVirtual().start(() -> {
+                    try {
+                        OutputStream out = socket.getOutputStream();
+                        out.write(("POST /csv/processar?modo=stream HTTP/1.1\r\n"
+                                + "Host: localhost\r\n"
+                                + "Content-Type: text/csv\r\n"
+                                + "Content-Length: " + Files.size(input) + "\r\n"
+                                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                        Files.copy(input, out);
+                        out.flush();
+                    } catch (IOException e) {
+                        // A resposta informa o erro
+                    }
+                });
+                long lines = readChunkedResponse(new BufferedInputStream(socket.getInputStream()));
+                sender.join();
+                return lines - 1;
+            }
+        });
+
+        assertEquals(ROWS, measurement.rows());
+        measurement.assertWithinBudget("stream");
+    }
+
+    /**
+     * Lê uma resposta HTTP/1.1 com corpo em chunks e conta as quebras de
+     * linha do corpo; os trailers são ignorados.
+     */
+    private static long readChunkedResponse(InputStream in) throws IOException {
+        String status = readLine(in);
+        assertTrue(status.startsWith("HTTP/1.1 200"), status);
+        while (!readLine(in).isEmpty()) {
+            // Cabeçalhos
+        }
+
+        long lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        int chunkSize;
+        while ((chunkSize = Integer.parseInt(readLine(in).split(";")[0].trim(), 16)) > 0) {
+            int remaining = chunkSize;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Resposta interrompida");
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                remaining -= read;
+            }
+            readLine(in);
+        }
+        return lines;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("Resposta interrompida");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private Measurement measure(RowCountingCall call) throws Exception {
+        Set<Path> tempBefore = tempFiles();
+        System.gc();
+
+        try (HeapWatcher heap = new HeapWatcher()) {
+            long start = System.nanoTime();
+            long rows = call.run();
+            long elapsed = System.nanoTime() - start;
+
+            Set<Path> leaked = tempFiles();
+            leaked.removeAll(tempBefore);
+            assertTrue(leaked.isEmpty(), () -> "Arquivos temporários esquecidos: " + leaked);
+            try (Stream<Path> staging = Files.list(Paths.get(uploadDir).resolve(".staging"))) {
+                List<Path> left = staging.toList();
+                assertTrue(left.isEmpty(), () -> "Arquivos esquecidos no staging: " + left);
+            }
+            return new Measurement(rows, elapsed, heap.peak());
+        }
+    }
+
+    private static Set<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> TEMP_PREFIXES.stream()
+                            .anyMatch(prefix -> file.getFileName().toString().startsWith(prefix)))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @FunctionalInterface
+    private interface RowCountingCall {
+        long run() throws Exception;
+    }
+
+    private record Measurement(long rows, long elapsedNanos, long peakHeapBytes) {
+
+        void assertWithinBudget(String mode) {
+            double seconds = elapsedNanos / 1e9;
+            long rowsPerSecond = Math.round(rows / seconds);
+            System.out.printf("[%s] %d linhas em %.1f s (%d linhas/s), pico de heap vivo %d MB%n",
+                    mode, rows, seconds, rowsPerSecond, peakHeapBytes / (1024 * 1024));
+
+            assertTrue(peakHeapBytes <= MAX_HEAP_BYTES, () -> String.format(
+                    "[%s] pico de heap vivo %d MB acima do limite de %d MB", mode,
+                    peakHeapBytes / (1024 * 1024), MAX_HEAP_BYTES / (1024 * 1024)));
+            assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND, () -> String.format(
+                    "[%s] %d linhas/s abaixo do mínimo de %d", mode, rowsPerSecond, MIN_ROWS_PER_SECOND));
+        }
+    }
+
+    /**
+     * Maior ocupação do heap logo após uma coleta (dados vivos), somando
+     * todas as áreas do heap, enquanto estiver aberto.
+     */
+    private static final class HeapWatcher implements AutoCloseable {
+        private final AtomicLong peak = new AtomicLong();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getName)
+                .collect(Collectors.toSet());
+
+        private final NotificationListener listener = (notification, handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> usage : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(usage.getKey())) {
+                    used += usage.getValue().getUsed();
+                }
+            }
+            peak.accumulateAndGet(used, Math::max);
+        };
+
+        HeapWatcher() {
+            peak.set(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(listener, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        long peak() {
+            return peak.get();
+        }
+
+        @Override
+        public void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    // Já removido
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig.Tokenizer;
+import com.ferramentas.ferramentas.util.CpfValidator;
+import com.ferramentas.ferramentas.util.CsvProcessingResult;
+import com.ferramentas.ferramentas.util.CsvProcessor;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+import com.ferramentas.ferramentas.util.DateFormatter;
+
+/**
+ * Processamento completo (duas passagens, arquivo para arquivo) de um
+ * cadastro sintético com 10 mil, 100 mil e 1 milhão de linhas, com cada
+ * tokenizador. O arquivo é gerado uma vez por combinação de parâmetros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx2g"})
+public class CsvProcessorBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"COMMONS", "MMAP"})
+    private Tokenizer tokenizer;
+
+    private Path directory;
+    private File input;
+    private File output;
+    private ForkJoinPool pool;
+    private CsvProcessor processor;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("csv-benchmark");
+        input = directory.resolve("cadastro.csv").toFile();
+        output = directory.resolve("formatado.csv").toFile();
+        BenchmarkData.writeRoster(input.toPath(), rows, new Random(42));
+
+        CsvProcessingConfig config = new CsvProcessingConfig();
+        config.setTokenizer(tokenizer);
+        pool = config.csvProcessingPool();
+        processor = new CsvProcessor(new CpfValidator(), new DateFormatter(), config, pool);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        Files.deleteIfExists(output.toPath());
+        Files.deleteIfExists(input.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public CsvProcessingResult processCsv() {
+        return processor.processCsv(input, output, Deduplication.NONE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvProcessorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ferramentas.ferramentas.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ferramentas.ferramentas.util.DateFormatter;
+
+/** Conversão para dd/MM/yyyy de datas em todos os formatos aceitos, misturados. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DateFormatterBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final DateFormatter dateFormatter = new DateFormatter();
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dates = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            dates[i] = BenchmarkData.mixedDate(random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void convertToBrazilianFormat(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(dateFormatter.convertToBrazilianFormat(date));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DateFormatterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ferramentas.ferramentas.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.ferramentas.ferramentas.service.AdmissionService;
+
+@SpringBootTest(properties = {
+        "admission.memory-budget=8MB",
+        "admission.max-wait=100ms",
+        "admission.retry-after=7s",
+        "admission.rate-limit.requests-per-second=0.01",
+        "admission.rate-limit.burst=3",
+        "admission.rate-limit.client-header=X-Forwarded-For",
+        "file.upload-dir=target/admission-test-storage",
+        "file.housekeeping.enabled=false"
+})
+@AutoConfigureMockMvc
+class AdmissionFilterTest {
+
+    private static final String CPF_JSON = "{\"cpf\":\"52998224725\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionService admissionService;
+
+    @Test
+    void rejectsClientAboveRateLimitWith429AndRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(validateCpf("10.0.0.1")).andExpect(status().isOk());
+        }
+
+        mockMvc.perform(validateCpf("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value("error"));
+
+        // Outro cliente tem o próprio balde
+        mockMvc.perform(validateCpf("10.0.0.2")).andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsWith503AndRetryAfterWhenBudgetIsExhausted() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "dados.csv", "text/csv",
+                "nome,cpf\nAna,52998224725\n".getBytes());
+
+        try (AdmissionService.Permit whole = admissionService.acquireForJob(Long.MAX_VALUE / 8, () -> false)) {
+            // O MockMvc não calcula o tamanho do multipart; o corpo informa o Content-Length
+            mockMvc.perform(multipart("/csv/processar").file(file)
+                            .with(request -> {
+                                request.setContent(new byte[1024]);
+                                return request;
+                            })
+                            .header("X-Forwarded-For", "10.0.1.1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "7"))
+                    .andExpect(jsonPath("$.message").value("Servidor sobrecarregado, tente novamente mais tarde"));
+
+            // Sem corpo, não reserva orçamento
+            mockMvc.perform(get("/csv/cache").header("X-Forwarded-For", "10.0.1.1"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(validateCpf("10.0.1.2")).andExpect(status().isOk());
+    }
+
+    private static RequestBuilder validateCpf(String client) {
+        return post("/cpf/validar")
+                .header("X-Forwarded-For", client)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CPF_JSON);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ferramentas.ferramentas.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.ferramentas.ferramentas.service.ComprovanteService;
+import com.ferramentas.ferramentas.service.FileService;
+import com.ferramentas.ferramentas.util.Bulkhead;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class ComprovanteControllerTest {
+
+    private static final String RETORNO = "({'mensagem': [{'mensagem': 'COMPROVANTE %d'}]}, 200)";
+
+    /** Item 2 sem retorno e item 3 com JSON quebrado: o item 4 não chega a ser lido. */
+    private static final String BATCH = "{\"jsonRetorno\": \"" + RETORNO.formatted(1) + "\"}\n"
+            + "{\"jsonRetorno\": \"\"}\n"
+            + "{\"jsonRetorno\": \"" + RETORNO.formatted(3) + "\n"
+            + "\"" + RETORNO.formatted(4) + "\"\n";
+
+    @TempDir
+    Path tempDir;
+
+    private Bulkhead bulkhead;
+    private ComprovanteController controller;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("comprovante-lote", 1, 1, registry);
+        FileService fileService = mock(FileService.class);
+        when(fileService.stagingFile(anyString(), anyString()))
+                .thenAnswer(invocation -> tempDir.resolve(invocation.getArgument(0) + "teste.json"));
+        controller = new ComprovanteController(
+                new ComprovanteService(registry, bulkhead, bulkhead, JsonMapper.shared(), fileService));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void zipBatchListsBadItemAndSyntaxErrorAndSendsTrailers() throws IOException {
+        TrailerResponse response = new TrailerResponse();
+        byte[] zip = generate("zip", response);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                byte[] content = in.readAllBytes();
+                entries.put(entry.getName(), entry.getName().endsWith(".json")
+                        ? new String(content, StandardCharsets.UTF_8)
+                        : pageText(content, 1));
+            }
+        }
+
+        assertEquals(2, entries.size(), entries.keySet().toString());
+        assertTrue(entries.get("comprovante-00001.pdf").contains("COMPROVANTE 1"));
+        String errors = entries.get("erros.json");
+        assertTrue(errors.startsWith("[{\"item\":2,\"erro\":\"JSON de retorno não pode estar vazio\"}"), errors);
+        assertTrue(errors.contains("{\"item\":3,\"erro\":\"Lote interrompido, JSON malformado"), errors);
+        assertEquals(Map.of("X-Comprovantes-Gerados", "1", "X-Comprovantes-Com-Erro", "2"),
+                response.getTrailerFields().get());
+        try (Stream<Path> staged = Files.list(tempDir)) {
+            assertEquals(0, staged.count());
+        }
+    }
+
+    @Test
+    void pdfBatchStartsEachItemOnANewPage() throws IOException {
+        TrailerResponse response = new TrailerResponse();
+        byte[] pdf = generate("pdf", response);
+
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            assertEquals(3, document.getNumberOfPages());
+            assertTrue(PdfTextExtractor.getTextFromPage(document.getPage(1)).contains("COMPROVANTE 1"));
+            assertTrue(PdfTextExtractor.getTextFromPage(document.getPage(2)).contains("Comprovante 2 não gerado"));
+            assertTrue(PdfTextExtractor.getTextFromPage(document.getPage(3)).contains("Comprovante 3 não gerado"));
+        }
+        assertEquals(Map.of("X-Comprovantes-Gerados", "1", "X-Comprovantes-Com-Erro", "2"),
+                response.getTrailerFields().get());
+    }
+
+    private byte[] generate(String formato, TrailerResponse response) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/comprovante/lote");
+        request.setContentType("application/x-ndjson");
+        request.setContent(BATCH.getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<StreamingResponseBody> entity = controller.generateBatch(request, formato, response);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        entity.getBody().writeTo(output);
+        return output.toByteArray();
+    }
+
+    private static String pageText(byte[] pdf, int page) throws IOException {
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            return PdfTextExtractor.getTextFromPage(document.getPage(page));
+        }
+    }
+
+    /** O MockHttpServletResponse não guarda os trailers. */
+    private static final class TrailerResponse extends MockHttpServletResponse {
+        private Supplier<Map<String, String>> trailers;
+
+        @Override
+        public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+            this.trailers = supplier;
+        }
+
+        @Override
+        public Supplier<Map<String, String>> getTrailerFields() {
+            return trailers;
+        }
+    }
+}
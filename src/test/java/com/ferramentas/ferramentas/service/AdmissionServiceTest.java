@@ -0,0 +1,64 @@
+package com.ferramentas.ferramentas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import com.ferramentas.ferramentas.config.AdmissionConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionServiceTest {
+
+    private final AdmissionService admissionService = new AdmissionService(config(), new SimpleMeterRegistry());
+
+    private static AdmissionConfig config() {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setMemoryBudget(DataSize.ofMegabytes(64));
+        AdmissionConfig.Cost csv = new AdmissionConfig.Cost();
+        csv.setBase(DataSize.ofMegabytes(2));
+        csv.setFactor(3);
+        config.getCosts().put("csv", csv);
+        return config;
+    }
+
+    @Test
+    void bodylessRequestsReserveNothing() {
+        assertEquals(0, admissionService.estimateKb("csv", new MockHttpServletRequest("GET", "/csv/jobs/1/eventos")));
+        assertEquals(0, admissionService.estimateKb("csv", new MockHttpServletRequest("DELETE", "/csv/jobs/1")));
+        assertEquals(0, admissionService.estimateKb("csv", new MockHttpServletRequest("POST", "/csv/processar")));
+    }
+
+    @Test
+    void bodyCostScalesWithContentLength() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/csv/processar");
+        request.setContent(new byte[1024 * 1024]);
+
+        assertEquals(2 * 1024 + 3 * 1024, admissionService.estimateKb("csv", request));
+    }
+
+    @Test
+    void spooledRoutesReserveOnlyTheBaseCost() {
+        MockHttpServletRequest submit = new MockHttpServletRequest("POST", "/csv/jobs");
+        submit.setContent(new byte[1024 * 1024]);
+        MockHttpServletRequest chunk = new MockHttpServletRequest("PUT", "/csv/uploads/abc");
+        chunk.setContent(new byte[1024 * 1024]);
+
+        assertEquals(2 * 1024, admissionService.estimateKb("csv", submit));
+        assertEquals(2 * 1024, admissionService.estimateKb("csv", chunk));
+    }
+
+    @Test
+    void jobReservationWaitsForBudgetAndHonorsCancellation() {
+        try (AdmissionService.Permit whole = admissionService.acquireForJob(Long.MAX_VALUE / 8, () -> false)) {
+            assertEquals(64L * 1024 * 1024, admissionService.getInFlightBytes());
+            assertThrows(CancellationException.class, () -> admissionService.acquireForJob(1024, () -> true));
+        }
+        assertEquals(0, admissionService.getInFlightBytes());
+    }
+}
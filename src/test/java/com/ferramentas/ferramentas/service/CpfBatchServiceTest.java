@@ -0,0 +1,83 @@
+package com.ferramentas.ferramentas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.ferramentas.ferramentas.config.CpfBulkConfig;
+import com.ferramentas.ferramentas.exception.InvalidCpfBatchException;
+import com.ferramentas.ferramentas.service.CpfBatchService.Format;
+import com.ferramentas.ferramentas.util.CpfBatchValidator;
+
+class CpfBatchServiceTest {
+
+    private static final String LONG_LINE = "1".repeat(1_000_000);
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void overlongLineBecomesInvalidItemWithoutShiftingLineNumbers() throws IOException {
+        // Termina sem quebra de linha e mistura \r\n, \n e \r
+        String input = "52998224725\r\n" + LONG_LINE + "\n\n11144477735\r00000000000";
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            List<String> lines = validate(input, Format.NDJSON, parallel);
+
+            assertEquals(5, lines.size(), lines.toString());
+            assertEquals("{\"linha\":1,\"cpf\":\"52998224725\",\"valido\":true,\"cpfFormatado\":\"529.982.247-25\","
+                    + "\"mensagem\":\"CPF válido!\"}", lines.get(0));
+            assertEquals("{\"linha\":2,\"cpf\":\"" + "1".repeat(64) + "\",\"valido\":false,\"cpfFormatado\":null,"
+                    + "\"mensagem\":\"Linha maior que 64 caracteres\"}", lines.get(1));
+            assertEquals("{\"linha\":4,\"cpf\":\"11144477735\",\"valido\":true,\"cpfFormatado\":\"111.444.777-35\","
+                    + "\"mensagem\":\"CPF válido!\"}", lines.get(2));
+            assertEquals("{\"linha\":5,\"cpf\":\"00000000000\",\"valido\":false,\"cpfFormatado\":\"000.000.000-00\","
+                    + "\"mensagem\":\"CPF com dígitos repetidos é inválido\"}", lines.get(3));
+            assertEquals("{\"total\":4,\"validos\":2,\"invalidos\":2}", lines.get(4));
+        }
+    }
+
+    @Test
+    void overlongLineInCsvOutput() throws IOException {
+        List<String> lines = validate(LONG_LINE + "\r\n52998224725\n", Format.CSV, false);
+
+        assertEquals(List.of(
+                "linha;cpf;valido;cpfFormatado;mensagem",
+                "1;" + "1".repeat(64) + ";N;;Linha maior que 64 caracteres",
+                "2;52998224725;S;529.982.247-25;CPF válido!",
+                "# total=2;validos=1;invalidos=1"), lines);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertEquals(Format.NDJSON, Format.of(null));
+        assertEquals(Format.NDJSON, Format.of(" NDJSON "));
+        assertEquals(Format.CSV, Format.of("csv"));
+        assertThrows(InvalidCpfBatchException.class, () -> Format.of("xml"));
+        assertThrows(InvalidCpfBatchException.class, () -> Format.of("cvs"));
+    }
+
+    private List<String> validate(String input, Format format, boolean parallel) throws IOException {
+        CpfBulkConfig config = new CpfBulkConfig();
+        config.setParallel(parallel);
+        config.setBatchSize(2);
+        CpfBatchService service = new CpfBatchService(new CpfBatchValidator(), config, pool);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.validate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), -1, output, format);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.ferramentas.ferramentas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.ferramentas.ferramentas.config.CsvCacheConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
+import com.ferramentas.ferramentas.util.Bulkhead;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+@SpringBootTest(properties = {
+        "file.upload-dir=target/cache-test-storage",
+        "file.housekeeping.enabled=false",
+        "csv.cache.persist-interval=1h",
+        "bulkheads.csv.threads=1",
+        "bulkheads.csv.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+class CsvResultCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CsvResultCache cache;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private CsvCacheConfig cacheConfig;
+
+    @Autowired
+    private CsvProcessingConfig processingConfig;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private Bulkhead csvBulkhead;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedUploadReusesResultAndIndexSurvivesReload() throws Exception {
+        // Conteúdo único por execução, para não acertar o índice de uma execução anterior
+        byte[] csv = ("nome,cpf\nAna " + UUID.randomUUID() + ",52998224725\n").getBytes(StandardCharsets.UTF_8);
+
+        String fileName = mockMvc.perform(upload(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reaproveitado").value(false))
+                .andReturn().getResponse().getContentAsString();
+        fileName = jsonMapper.readTree(fileName).at("/data/fileName").stringValue();
+
+        mockMvc.perform(upload(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reaproveitado").value(true))
+                .andExpect(jsonPath("$.data.fileName").value(fileName));
+
+        cache.flush();
+        Path index = fileService.getStorageLocation().resolve(".cache/index.json");
+        FileTime written = Files.getLastModifiedTime(index);
+
+        // Acerto só reordena o LRU em memória: nada a gravar
+        mockMvc.perform(upload(csv)).andExpect(jsonPath("$.data.reaproveitado").value(true));
+        cache.flush();
+        assertEquals(written, Files.getLastModifiedTime(index));
+
+        CsvResultCache reloaded = new CsvResultCache(fileService, cacheConfig, processingConfig, jsonMapper);
+        reloaded.init();
+        CsvProcessingResponse cached = reloaded.lookup(reloaded.key(sha256(csv), Deduplication.NONE, false));
+        assertNotNull(cached);
+        assertEquals(fileName, cached.getFileName());
+    }
+
+    @Test
+    void cacheHitIsServedWhileTheBulkheadIsFull() throws Exception {
+        byte[] csv = ("nome,cpf\nBia " + UUID.randomUUID() + ",52998224725\n").getBytes(StandardCharsets.UTF_8);
+        mockMvc.perform(upload(csv)).andExpect(jsonPath("$.data.reaproveitado").value(false));
+
+        // Uma tarefa na única thread do bulkhead e outra na única vaga da fila
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread running = Thread.ofVirtual().start(() -> csvBulkhead.call(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread queued = Thread.ofVirtual().start(() -> csvBulkhead.call(() -> true));
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("bulkhead.queued").tag("bulkhead", "csv").gauge().value() < 1) {
+                assertTrue(System.nanoTime() < deadline, "bulkhead não encheu");
+                Thread.sleep(10);
+            }
+
+            mockMvc.perform(upload(csv))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.reaproveitado").value(true));
+            byte[] other = ("nome,cpf\nNovo " + UUID.randomUUID() + ",52998224725\n").getBytes(StandardCharsets.UTF_8);
+            mockMvc.perform(upload(other))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+            running.join();
+            queued.join();
+        }
+    }
+
+    private static RequestBuilder upload(byte[] csv) {
+        return multipart("/csv/processar").file(new MockMultipartFile("file", "dados.csv", "text/csv", csv));
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
@@ -0,0 +1,278 @@
+package com.ferramentas.ferramentas.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ferramentas.ferramentas.config.CsvJobConfig;
+import com.ferramentas.ferramentas.config.CsvUploadConfig;
+import com.ferramentas.ferramentas.dto.CsvJobStatus;
+import com.ferramentas.ferramentas.dto.CsvProcessingResponse;
+import com.ferramentas.ferramentas.dto.CsvUploadStatus;
+import com.ferramentas.ferramentas.exception.CsvJobRejectedException;
+import com.ferramentas.ferramentas.exception.CsvUploadException;
+import com.ferramentas.ferramentas.exception.CsvUploadNotFoundException;
+import com.ferramentas.ferramentas.exception.CsvUploadStateException;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+class CsvUploadServiceTest {
+
+    private static final byte[] CONTENT = "nome,cpf\nAna,52998224725\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private final CsvJobService csvJobService = mock(CsvJobService.class);
+    private CsvUploadService uploadService;
+    private Path spoolFile;
+
+    @BeforeEach
+    void setUp() {
+        spoolFile = tempDir.resolve("chunked.csv");
+        FileService fileService = mock(FileService.class);
+        when(fileService.stagingFile(anyString(), anyString())).thenReturn(spoolFile);
+        uploadService = new CsvUploadService(fileService, mock(CsvService.class), csvJobService, new CsvUploadConfig());
+    }
+
+    @Test
+    void assemblesOutOfOrderAndRetriedChunks() throws IOException {
+        String id = uploadService.init("dados.csv", CONTENT.length).getId();
+
+        uploadService.writeChunk(id, 10, chunk(10, CONTENT.length));
+        assertFalse(uploadService.getStatus(id).isCompleto());
+        uploadService.writeChunk(id, 0, chunk(0, 12));
+        // Reenvio parcial da primeira parte, como após uma queda de conexão
+        CsvUploadStatus status = uploadService.writeChunk(id, 0, chunk(0, 6));
+
+        assertTrue(status.isCompleto());
+        assertEquals(CONTENT.length, status.getBytesRecebidos());
+        assertEquals(1, status.getIntervalosRecebidos().size());
+
+        uploadService.complete(id, sha256(CONTENT), Deduplication.NONE, false);
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(spoolFile));
+        verify(csvJobService).submit(eq(spoolFile), eq(sha256(CONTENT)), eq("dados.csv"),
+                eq((long) CONTENT.length), eq(Deduplication.NONE), eq(false));
+        assertThrows(CsvUploadNotFoundException.class, () -> uploadService.getStatus(id));
+    }
+
+    @Test
+    void failedChecksumReopensTheUpload() {
+        String id = uploadService.init("dados.csv", CONTENT.length).getId();
+        uploadService.writeChunk(id, 0, new ByteArrayInputStream(CONTENT));
+
+        assertThrows(CsvUploadException.class,
+                () -> uploadService.complete(id, sha256(new byte[0]), Deduplication.NONE, false));
+
+        // O cliente pode reenviar a parte e concluir de novo
+        uploadService.writeChunk(id, 0, new ByteArrayInputStream(CONTENT));
+        uploadService.complete(id, sha256(CONTENT), Deduplication.NONE, false);
+        verify(csvJobService).submit(any(), anyString(), anyString(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    void fullJobQueueKeepsTheUploadForRetry() throws Exception {
+        CsvJobConfig jobConfig = new CsvJobConfig();
+        jobConfig.setConcurrency(1);
+        jobConfig.setQueueCapacity(1);
+        ThreadPoolExecutor executor = jobConfig.csvJobExecutor();
+        CsvService csvService = mock(CsvService.class);
+        CsvJobService jobService = new CsvJobService(csvService, mock(AdmissionService.class), jobConfig, executor);
+        FileService fileService = mock(FileService.class);
+        when(fileService.stagingFile(anyString(), anyString())).thenReturn(spoolFile);
+        uploadService = new CsvUploadService(fileService, csvService, jobService, new CsvUploadConfig());
+
+        // Uma tarefa ocupando o único worker e outra ocupando a única vaga da fila
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitUninterruptibly(release));
+        executor.execute(() -> { });
+
+        try {
+            String id = uploadService.init("dados.csv", CONTENT.length).getId();
+            uploadService.writeChunk(id, 0, new ByteArrayInputStream(CONTENT));
+
+            assertThrows(CsvJobRejectedException.class,
+                    () -> uploadService.complete(id, sha256(CONTENT), Deduplication.NONE, false));
+            assertArrayEquals(CONTENT, Files.readAllBytes(spoolFile));
+            assertTrue(uploadService.getStatus(id).isCompleto());
+            verify(csvService, never()).deleteTempFiles(any());
+
+            release.countDown();
+            CsvJobStatus job = retryWhileRejected(() -> uploadService.complete(id, sha256(CONTENT),
+                    Deduplication.NONE, false));
+
+            assertEquals("dados.csv", job.getArquivo());
+            assertThrows(CsvUploadNotFoundException.class, () -> uploadService.getStatus(id));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cachedResultCompletesWithoutTheJobPool() throws IOException {
+        ThreadPoolExecutor executor = new CsvJobConfig().csvJobExecutor();
+        executor.shutdown();
+        CsvService csvService = mock(CsvService.class);
+        CsvProcessingResponse cached = CsvProcessingResponse.builder().fileName("formatado_x.csv")
+                .reaproveitado(true).build();
+        when(csvService.findProcessed(sha256(CONTENT), Deduplication.NONE, false)).thenReturn(cached);
+        CsvJobService jobService = new CsvJobService(csvService, mock(AdmissionService.class), new CsvJobConfig(),
+                executor);
+        FileService fileService = mock(FileService.class);
+        when(fileService.stagingFile(anyString(), anyString())).thenReturn(spoolFile);
+        uploadService = new CsvUploadService(fileService, csvService, jobService, new CsvUploadConfig());
+
+        String id = uploadService.init("dados.csv", CONTENT.length).getId();
+        uploadService.writeChunk(id, 0, new ByteArrayInputStream(CONTENT));
+        // O pool recusaria qualquer tarefa: o acerto no cache não passa por ele
+        CsvJobStatus job = uploadService.complete(id, sha256(CONTENT), Deduplication.NONE, false);
+
+        assertEquals("DONE", job.getFase());
+        assertEquals(cached, job.getResultado());
+        verify(csvService).deleteTempFiles(spoolFile);
+        verify(csvService, never()).processStored(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void completionWaitsForInFlightChunkAndRejectsNewOnes() throws Exception {
+        String id = uploadService.init("dados.csv", CONTENT.length).getId();
+        uploadService.writeChunk(id, 0, chunk(0, 10));
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slowBody = new InputStream() {
+            private final InputStream data = chunk(10, CONTENT.length);
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = data.read(b, off, len);
+                if (read == -1) {
+                    // Bytes já gravados, mas a requisição ainda não terminou
+                    writing.countDown();
+                    awaitQuietly(release);
+                }
+                return read;
+            }
+        };
+
+        CompletableFuture<CsvUploadStatus> write = CompletableFuture.supplyAsync(
+                () -> uploadService.writeChunk(id, 10, slowBody));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> completion = CompletableFuture.runAsync(
+                () -> uploadService.complete(id, sha256(CONTENT), Deduplication.NONE, false));
+
+        assertThrows(CsvUploadStateException.class,
+                () -> retryWhileOpen(() -> uploadService.writeChunk(id, 0, chunk(0, 10))));
+        assertThrows(CsvUploadStateException.class, () -> uploadService.abort(id));
+        assertFalse(completion.isDone());
+        verify(csvJobService, never()).submit(any(), anyString(), anyString(), anyLong(), any(), anyBoolean());
+
+        release.countDown();
+        assertTrue(write.get(5, TimeUnit.SECONDS).isCompleto());
+        completion.get(5, TimeUnit.SECONDS);
+
+        verify(csvJobService).submit(eq(spoolFile), eq(sha256(CONTENT)), anyString(), anyLong(), any(), anyBoolean());
+        assertThrows(CsvUploadNotFoundException.class, () -> uploadService.writeChunk(id, 0, chunk(0, 10)));
+    }
+
+    @Test
+    void abortedUploadRejectsFurtherChunks() {
+        String id = uploadService.init("dados.csv", CONTENT.length).getId();
+        uploadService.writeChunk(id, 0, chunk(0, 10));
+
+        uploadService.abort(id);
+
+        assertThrows(CsvUploadNotFoundException.class, () -> uploadService.writeChunk(id, 10, chunk(10, 20)));
+        assertThrows(CsvUploadNotFoundException.class, () -> uploadService.abort(id));
+    }
+
+    /** Repete a gravação até a conclusão concorrente fechar o upload. */
+    private static void retryWhileOpen(Runnable write) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            write.run();
+            Thread.sleep(10);
+        }
+    }
+
+    /** Repete a conclusão enquanto a fila ainda não liberou vaga. */
+    private static CsvJobStatus retryWhileRejected(Supplier<CsvJobStatus> complete) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return complete.get();
+            } catch (CsvJobRejectedException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static InputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(CONTENT, from, to - from);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ferramentas.ferramentas.service;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {
+        "file.upload-dir=target/download-test-storage",
+        "file.housekeeping.enabled=false"
+})
+@AutoConfigureMockMvc
+class FileDownloadServiceTest {
+
+    private static final String CONTENT = "NOME;CPF\nAna;52998224725\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FileService fileService;
+
+    private String fileName;
+    private String etag;
+    private String lastModified;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileName = "formatado_" + UUID.randomUUID() + ".csv";
+        Files.writeString(fileService.getStorageLocation().resolve(fileName), CONTENT);
+
+        MockHttpServletResponse response = mockMvc.perform(download())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().string(CONTENT))
+                .andReturn().getResponse();
+        etag = response.getHeader(HttpHeaders.ETAG);
+        lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
+    @Test
+    void servesSingleRangeWith206() throws Exception {
+        mockMvc.perform(download().header(HttpHeaders.RANGE, "bytes=9-11"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 9-11/" + CONTENT.length()))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 3))
+                .andExpect(content().string("Ana"));
+    }
+
+    @Test
+    void rejectsRangeOutsideTheFileWith416() throws Exception {
+        mockMvc.perform(download().header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length()));
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWith304() throws Exception {
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, "\"outro\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void honoursRangeOnlyWhenIfRangeMatches() throws Exception {
+        mockMvc.perform(download().header(HttpHeaders.RANGE, "bytes=9-11").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("Ana"));
+
+        mockMvc.perform(download().header(HttpHeaders.RANGE, "bytes=9-11").header(HttpHeaders.IF_RANGE, lastModified))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("Ana"));
+
+        // Arquivo diferente do que o cliente tem: vai o arquivo inteiro
+        mockMvc.perform(download().header(HttpHeaders.RANGE, "bytes=9-11").header(HttpHeaders.IF_RANGE, "\"outro\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    private MockHttpServletRequestBuilder download() {
+        return get("/csv/download/{fileName}", fileName);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CpfBatchValidatorTest {
+
+    private final CpfValidator cpfValidator = new CpfValidator();
+    private final CpfBatchValidator batchValidator = new CpfBatchValidator();
+
+    @Test
+    void batchResultMatchesScalarValidator() {
+        Random random = new Random(42);
+        CpfDigitBatch batch = new CpfDigitBatch(10_007);
+        String[] cpfs = new String[batch.capacity()];
+
+        for (int i = 0; i < cpfs.length; i++) {
+            cpfs[i] = randomCpf(random);
+            batch.add(cpfs[i]);
+        }
+        batchValidator.validate(batch);
+
+        for (int i = 0; i < cpfs.length; i++) {
+            assertEquals(cpfValidator.isValid(cpfs[i]), batch.isValid(i), cpfs[i]);
+        }
+    }
+
+    @Test
+    void scalarFallbackMatchesScalarValidator() {
+        Random random = new Random(7);
+        CpfDigitBatch batch = new CpfDigitBatch(5_000);
+        String[] cpfs = new String[batch.capacity()];
+
+        for (int i = 0; i < cpfs.length; i++) {
+            cpfs[i] = randomCpf(random);
+            batch.add(cpfs[i]);
+        }
+        CpfBatchValidator.validateScalar(batch.digits, 0, batch.size(), batch.valid);
+
+        for (int i = 0; i < cpfs.length; i++) {
+            assertEquals(cpfValidator.isValid(cpfs[i]), batch.isValid(i), cpfs[i]);
+        }
+    }
+
+    @Test
+    void formatsAndFlagsLikeCpfValidator() {
+        CpfDigitBatch batch = new CpfDigitBatch(3);
+        batch.add("529.982.247-25");
+        batch.add("111.111.111-11");
+        batch.add("123");
+        batchValidator.validate(batch);
+
+        StringBuilder formatted = new StringBuilder();
+        batch.appendFormatted(0, formatted);
+        assertEquals("529.982.247-25", formatted.toString());
+        assertEquals(true, batch.isValid(0));
+        assertEquals(true, batch.hasRepeatedDigits(1));
+        assertEquals(false, batch.isComplete(2));
+        assertEquals(false, batch.isValid(2));
+    }
+
+    static String randomCpf(Random random) {
+        int[] digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        switch (random.nextInt(6)) {
+            case 0 -> digits[random.nextInt(11)] = random.nextInt(10);
+            case 1 -> java.util.Arrays.fill(digits, random.nextInt(10));
+            case 2 -> {
+                return Long.toString(random.nextLong(100_000_000_000L));
+            }
+            default -> {
+            }
+        }
+
+        StringBuilder cpf = new StringBuilder();
+        for (int i = 0; i < digits.length; i++) {
+            cpf.append(digits[i]);
+            if (i == 2 || i == 5) {
+                cpf.append('.');
+            } else if (i == 8) {
+                cpf.append('-');
+            }
+        }
+        return cpf.toString();
+    }
+
+    private static int checkDigit(int[] digits, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        int digit = 11 - sum % 11;
+        return digit >= 10 ? 0 : digit;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste diferencial: o sanitizador de uma passada do CsvProcessor deve
+ * produzir exatamente o que a limpeza anterior, com trim, replace e
+ * replaceAll encadeados, produzia.
+ */
+class CsvFieldSanitizerTest {
+
+    @Test
+    void edgeCasesMatchChainedReplaces() {
+        String[] edgeCases = {"", " ", "  a  b  ", "a\tb\nc", "O'Brien", "José", "a’b", "\u0001x\u001c",
+                "\u000Bx\f", "😀", "x-y.z", "\u00a0a\u2003b", "abc", "a b", "a  b", " a"};
+        for (String value : edgeCases) {
+            assertSanitizedLikeReference(value);
+        }
+    }
+
+    @Test
+    void randomValuesMatchChainedReplaces() {
+        Random random = new Random(1);
+        String alphabet = "aZ09 \t\n\u000B\f\r'!é’\u0001\u001c \ud83d\ude00-.";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSanitizedLikeReference(value.toString());
+        }
+    }
+
+    private static void assertSanitizedLikeReference(String value) {
+        for (boolean allowSpaces : new boolean[] {true, false}) {
+            assertEquals(referenceSanitize(value, allowSpaces), CsvProcessor.sanitizeField(value, allowSpaces),
+                    () -> "Entrada: [" + value + "] espaços=" + allowSpaces);
+        }
+    }
+
+    /** Implementação anterior do sanitizador, com trim/replace/replaceAll encadeados. */
+    private static String referenceSanitize(String value, boolean allowSpaces) {
+        if (value.trim().isEmpty()) {
+            return "";
+        }
+        String sanitized = value.trim().replace("'", "");
+        if (allowSpaces) {
+            sanitized = sanitized.replaceAll("[^A-Za-z0-9\\s]", "");
+            return sanitized.replaceAll("\\s+", " ").trim();
+        }
+        return sanitized.replaceAll("[^A-Za-z0-9]", "");
+    }
+}
@@ -0,0 +1,73 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig.Tokenizer;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+/**
+ * Arquivo de referência: golden/esperado.csv é a saída byte a byte da
+ * implementação original para golden/entrada.csv (campos entre aspas,
+ * CRLF, linhas em branco, datas em vários formatos e CPFs inválidos).
+ * Todos os caminhos de processamento devem reproduzi-la.
+ */
+class CsvProcessorGoldenTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sequentialMatchesGoldenFile() throws IOException {
+        assertMatchesGolden(Tokenizer.COMMONS, false);
+    }
+
+    @Test
+    void parallelMatchesGoldenFile() throws IOException {
+        assertMatchesGolden(Tokenizer.COMMONS, true);
+    }
+
+    @Test
+    void mappedMatchesGoldenFile() throws IOException {
+        assertMatchesGolden(Tokenizer.MMAP, false);
+        assertMatchesGolden(Tokenizer.MMAP, true);
+    }
+
+    private void assertMatchesGolden(Tokenizer tokenizer, boolean parallel) throws IOException {
+        CsvProcessingConfig config = new CsvProcessingConfig();
+        config.setTokenizer(tokenizer);
+        if (parallel) {
+            config.setParallelism(4);
+            config.setBatchSize(3);
+            config.setParallelThreshold(DataSize.ofBytes(0));
+        } else {
+            config.setParallelThreshold(DataSize.ofGigabytes(1));
+        }
+        CsvProcessor processor = new CsvProcessor(new CpfValidator(), new DateFormatter(), config,
+                config.csvProcessingPool());
+
+        File input = tempDir.resolve("entrada.csv").toFile();
+        Files.write(input.toPath(), resource("golden/entrada.csv"));
+        File output = tempDir.resolve("saida_" + tokenizer + "_" + parallel + ".csv").toFile();
+        processor.processCsv(input, output, Deduplication.NONE);
+
+        assertArrayEquals(resource("golden/esperado.csv"), Files.readAllBytes(output.toPath()),
+                () -> tokenizer + (parallel ? " paralelo" : " sequencial"));
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = CsvProcessorGoldenTest.class.getClassLoader().getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig.Tokenizer;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+class CsvProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void columnFilledOnlyInDroppedFirstDuplicateIsRemoved() throws IOException {
+        // Ao manter a última, a linha de Ana sai e OBS fica vazia nas linhas mantidas
+        String csv = "NOME,CPF,OBS\n"
+                + "Ana,52998224725,texto\n"
+                + "Bia,11144477735,\n"
+                + "Ana Maria,52998224725,\n";
+
+        for (Tokenizer tokenizer : Tokenizer.values()) {
+            assertEquals(List.of("NOME;CPF", "Bia;11144477735", "Ana Maria;52998224725"),
+                    process(csv, tokenizer, Deduplication.KEEP_LAST), tokenizer.name());
+            assertEquals(List.of("NOME;CPF;OBS", "Ana;52998224725;texto", "Bia;11144477735;"),
+                    process(csv, tokenizer, Deduplication.KEEP_FIRST), tokenizer.name());
+        }
+    }
+
+    @Test
+    void columnFilledOnlyInDroppedRepeatIsRemoved() throws IOException {
+        // Ao manter a primeira, a repetição de Ana sai e OBS fica vazia nas linhas mantidas
+        String csv = "NOME,CPF,OBS\n"
+                + "Ana,52998224725,\n"
+                + "Bia,11144477735,\n"
+                + "Ana Maria,52998224725,texto\n";
+
+        for (Tokenizer tokenizer : Tokenizer.values()) {
+            assertEquals(List.of("NOME;CPF", "Ana;52998224725", "Bia;11144477735"),
+                    process(csv, tokenizer, Deduplication.KEEP_FIRST), tokenizer.name());
+            assertEquals(List.of("NOME;CPF;OBS", "Bia;11144477735;", "Ana Maria;52998224725;texto"),
+                    process(csv, tokenizer, Deduplication.KEEP_LAST), tokenizer.name());
+            assertEquals(List.of("NOME;CPF;OBS", "Ana;52998224725;", "Bia;11144477735;",
+                            "Ana Maria;52998224725;texto"),
+                    process(csv, tokenizer, Deduplication.NONE), tokenizer.name());
+        }
+    }
+
+    private List<String> process(String csv, Tokenizer tokenizer, Deduplication deduplication) throws IOException {
+        File input = tempDir.resolve("entrada.csv").toFile();
+        Files.writeString(input.toPath(), csv);
+
+        CsvProcessingConfig config = new CsvProcessingConfig();
+        config.setTokenizer(tokenizer);
+        CsvProcessor processor = new CsvProcessor(new CpfValidator(), new DateFormatter(), config,
+                config.csvProcessingPool());
+
+        File output = tempDir.resolve("saida_" + tokenizer + "_" + deduplication + ".csv").toFile();
+        processor.processCsv(input, output, deduplication);
+        String content = Files.readString(output.toPath(), StandardCharsets.UTF_8).replace("﻿", "");
+        return content.lines().toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.ferramentas.ferramentas.util.DateFormatter.DatePattern;
+
+/**
+ * Teste diferencial: o parser de uma varredura deve aceitar e converter
+ * exatamente o que a implementação anterior, com DateTimeFormatter,
+ * aceitava e convertia.
+ */
+class DateFormatterTest {
+
+    private static final DateTimeFormatter OUTPUT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Formatos da implementação anterior, na ordem em que eram testados. */
+    private static final DateTimeFormatter[] REFERENCE_FORMATS = Stream.of("M/d/yyyy", "MM/dd/yyyy", "d/M/yyyy",
+                    "dd/MM/yyyy", "yyyy-MM-dd", "yyyy/MM/dd", "yyyyMMdd", "ddMMyyyy")
+            .map(DateTimeFormatter::ofPattern)
+            .toArray(DateTimeFormatter[]::new);
+
+    private static final DateTimeFormatter[] PATTERN_FORMATS = Stream.of(DatePattern.values())
+            .map(pattern -> DateTimeFormatter.ofPattern(pattern.getPattern()))
+            .toArray(DateTimeFormatter[]::new);
+
+    private static final String[] EDGE_CASES = {
+            "", "   ", "1/2/2020", "01/02/2020", "13/01/2020", "31/04/2021", "29/02/2021", "29/02/2020",
+            "2/29/1900", "2/29/2000", "0/1/2020", "1/0/2020", "32/1/2020", "1/32/2020",
+            "2020-02-30", "2020-2-03", "2020/02/03", "2020/2/3", "20200230", "31042021", "00000000", "99999999",
+            // Anos com menos ou mais de 4 dígitos, e com sinal
+            "1/2/023", "1/2/10000", "1/2/+10000", "10000-01-02", "023-01-02", "1/2/0000", "1/2/0001",
+            "1/2/2020/3", "1/2", "1//2020", "/1/2/2020", "1/2/2020/", "1-2/2020", "1.2.2020", "2020.01.02",
+            " 1 / 2 / 2020 ", "a1/b2/c2020", "1/2/2020x", "'1/2/2020'", "‘1/2/2020’",
+            "0000000000000000001/1/2020", "1/00000000000000000001/2020", "123456789", "1234567",
+    };
+
+    private final DateFormatter dateFormatter = new DateFormatter();
+
+    @Test
+    void edgeCasesMatchDateTimeFormatter() {
+        for (String input : EDGE_CASES) {
+            assertMatchesReference(input);
+        }
+    }
+
+    @Test
+    void randomDatesMatchDateTimeFormatter() {
+        Random random = new Random(5);
+        String[] pieces = {"0", "1", "2", "9", "12", "13", "29", "30", "31", "32", "02", "2020", "2021", "1900",
+                "0000", "9999", "19991231", "31121999", "20200229", "/", "/", "-", "-", ".", "a", " ", "0001", "010"};
+
+        for (int i = 0; i < 20_000; i++) {
+            String input;
+            switch (random.nextInt(3)) {
+                case 0:
+                    input = String.format("%d/%d/%04d", random.nextInt(35), random.nextInt(35), random.nextInt(10_001));
+                    break;
+                case 1:
+                    input = String.format("%04d%02d%02d", random.nextInt(10_001), random.nextInt(15), random.nextInt(35));
+                    if (random.nextBoolean()) {
+                        input = input.substring(6) + input.substring(4, 6) + input.substring(0, 4);
+                    }
+                    break;
+                default:
+                    StringBuilder builder = new StringBuilder();
+                    int count = 1 + random.nextInt(6);
+                    for (int j = 0; j < count; j++) {
+                        builder.append(pieces[random.nextInt(pieces.length)]);
+                    }
+                    input = builder.toString();
+            }
+            assertMatchesReference(input);
+        }
+    }
+
+    private void assertMatchesReference(String input) {
+        String expected = reference(input);
+        assertEquals(expected, dateFormatter.tryConvertToBrazilianFormat(input), () -> "Entrada: " + input);
+
+        StringBuilder appended = new StringBuilder("x");
+        boolean converted = dateFormatter.appendBrazilianFormat(input, appended);
+        assertEquals(expected, converted ? appended.substring(1) : null, () -> "Entrada: " + input);
+
+        int expectedMask = 0;
+        for (DatePattern pattern : DatePattern.values()) {
+            String single = reference(input, PATTERN_FORMATS[pattern.ordinal()]);
+            if (single != null) {
+                expectedMask |= 1 << pattern.ordinal();
+            }
+            int date = DateFormatter.parse(input, pattern);
+            assertEquals(single, date == DateFormatter.INVALID ? null : format(date),
+                    () -> "Entrada: " + input + " formato " + pattern);
+        }
+        assertEquals(expectedMask, DateFormatter.matchingPatterns(input), () -> "Entrada: " + input);
+    }
+
+    /** Implementação anterior: limpeza por regex e um DateTimeFormatter por formato. */
+    private static String reference(String input) {
+        for (DateTimeFormatter formatter : REFERENCE_FORMATS) {
+            String date = reference(input, formatter);
+            if (date != null) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static String reference(String input, DateTimeFormatter formatter) {
+        if (input.trim().isEmpty()) {
+            return null;
+        }
+        String cleaned = input.trim().replaceAll("[^0-9/\\-.]", "");
+        try {
+            return LocalDate.parse(cleaned, formatter).format(OUTPUT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String format(int date) {
+        return String.format("%02d/%02d/%04d", date % 100, date / 100 % 100, date / 10_000);
+    }
+}
@@ -0,0 +1,228 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.ferramentas.ferramentas.config.CsvProcessingConfig;
+import com.ferramentas.ferramentas.config.CsvProcessingConfig.Tokenizer;
+import com.ferramentas.ferramentas.util.CsvProcessor.Deduplication;
+
+/**
+ * Teste diferencial: o tokenizador mapeado em memória deve ler exatamente
+ * o que o Commons CSV lê, com o mesmo formato usado pelo CsvProcessor.
+ */
+class MappedCsvReaderTest {
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.withFirstRecordAsHeader().withTrim();
+
+    private static final String[] EDGE_CASES = {
+            "",
+            "\n\n",
+            "A,B\n",
+            "A,B",
+            "A,B\n1,2",
+            "A,B\r\n1,2\r\n",
+            "A,B\r1,2\r3,4",
+            "A,B\n\n\r\n1,2\n\n",
+            "A,B\n1,\n,2\n,\n",
+            "A,B\n1,2,",
+            "A,B,C\n 1 , 2 ,\t3\t\n",
+            "A,B\n\"1\",\"2\"\n",
+            "A,B\n\"a,b\",\"c\nd\"\n",
+            "A,B\n\"a\"\"b\",\"\"\"\"\n",
+            "A,B\n\"\",\"\"\n",
+            "A,B\n\"  x  \"  ,y\n",
+            "A,B\nx\"y,\"z\"\n",
+            "A,B\n  \"x\",y\n",
+            "A,B\n\"x\"\u3000,y\n",
+            "A,B\n\"x\",\"y\"",
+            "A,B\n\"x\",",
+            "A,B\n   \n1,2\n",
+            "\ufeffCPF,NOME\n123,Jos\u00e9\n",
+            "A,A,B\n1,2,3\n",
+            "A,B\n\u00e9\u00e7\u00e3o,\ud83d\ude00\n",
+            "A,B\n\"x\"y,z\n",
+            "A,B\n\"unterminated,z\n",
+            "A,,B\n1,2,3\n",
+            " ,B\n1,2\n",
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void edgeCasesMatchCommonsCsv() throws IOException {
+        for (String input : EDGE_CASES) {
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(readCommons(bytes), readMapped(bytes), () -> "Entrada: " + escape(input));
+        }
+    }
+
+    @Test
+    void malformedUtf8MatchesCommonsCsv() throws IOException {
+        byte[] bytes = {'A', ',', 'B', '\n', (byte) 0xc3, ',', (byte) 0xe2, (byte) 0x82, '\n',
+                (byte) 0xff, 'x', ',', '"', (byte) 0x80, '"', '\n'};
+        assertEquals(readCommons(bytes), readMapped(bytes));
+    }
+
+    @Test
+    void randomDocumentsMatchCommonsCsv() throws IOException {
+        Random random = new Random(16);
+        for (int i = 0; i < 2_000; i++) {
+            String input = randomDocument(random);
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(readCommons(bytes), readMapped(bytes), () -> "Entrada: " + escape(input));
+        }
+    }
+
+    @Test
+    void processorOutputMatchesCommonsCsv() throws IOException {
+        Random random = new Random(9);
+        StringBuilder csv = new StringBuilder("CPF,NOME,NASCIMENTO,DEPENDENTE,OBSERVACAO,VAZIA,CODIGO\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(random.nextInt(10) == 0 ? "529.982.247-25" : randomCpf(random)).append(',')
+                    .append(random.nextBoolean() ? "\"Silva, Jo\u00e3o \"\"Jr\"\"\"" : " Maria  da  Silva ").append(',')
+                    .append(random.nextBoolean() ? "1990-01-" + (10 + random.nextInt(18)) : "13/01/2020").append(',')
+                    .append(random.nextBoolean() ? "Titular" : "dependente").append(',')
+                    .append(random.nextBoolean() ? "\"linha 1\nlinha 2\"" : "ok!").append(',')
+                    .append(',')
+                    .append(random.nextInt(1000))
+                    .append(random.nextBoolean() ? "\r\n" : "\n");
+        }
+        File input = tempDir.resolve("entrada.csv").toFile();
+        Files.writeString(input.toPath(), csv.toString());
+
+        for (Deduplication deduplication : Deduplication.values()) {
+            byte[] commons = process(input, Tokenizer.COMMONS, deduplication);
+            byte[] mapped = process(input, Tokenizer.MMAP, deduplication);
+            assertArrayEquals(commons, mapped, deduplication.name());
+        }
+    }
+
+    private byte[] process(File input, Tokenizer tokenizer, Deduplication deduplication) throws IOException {
+        CsvProcessingConfig config = new CsvProcessingConfig();
+        config.setTokenizer(tokenizer);
+        config.setParallelism(4);
+        config.setBatchSize(97);
+        config.setParallelThreshold(DataSize.ofBytes(0));
+        CsvProcessor processor = new CsvProcessor(new CpfValidator(), new DateFormatter(), config,
+                config.csvProcessingPool());
+
+        File output = tempDir.resolve("saida_" + tokenizer + "_" + deduplication + ".csv").toFile();
+        processor.processCsv(input, output, deduplication);
+        return Files.readAllBytes(output.toPath());
+    }
+
+    private List<String> readCommons(byte[] bytes) {
+        try (CSVParser parser = new CSVParser(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), FORMAT)) {
+            return describe(CsvRowReader.of(parser));
+        } catch (IOException | RuntimeException e) {
+            return List.of("ERRO");
+        }
+    }
+
+    private List<String> readMapped(byte[] bytes) throws IOException {
+        File file = Files.write(tempDir.resolve("mapeado.csv"), bytes).toFile();
+        try (MappedCsvReader reader = new MappedCsvReader(file, new CsvProgress())) {
+            return describe(reader);
+        } catch (RuntimeException e) {
+            return List.of("ERRO");
+        }
+    }
+
+    private static List<String> describe(CsvRowReader reader) {
+        List<String> lines = new ArrayList<>();
+        lines.add("cabecalho " + reader.getHeaderNames() + " " + reader.getHeaderMap());
+        for (CsvRow row : reader) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < row.size(); i++) {
+                values.add(row.get(i));
+            }
+            lines.add(row.getRecordNumber() + " " + values);
+        }
+        return lines;
+    }
+
+    private static String randomDocument(Random random) {
+        String[] newlines = {"\n", "\r\n", "\r"};
+        StringBuilder document = new StringBuilder();
+        int rows = random.nextInt(6);
+        for (int r = 0; r <= rows; r++) {
+            int fields = 1 + random.nextInt(4);
+            for (int f = 0; f < fields; f++) {
+                if (f > 0) {
+                    document.append(',');
+                }
+                document.append(randomField(random, r == 0));
+            }
+            if (r < rows || random.nextBoolean()) {
+                document.append(newlines[random.nextInt(newlines.length)]);
+            }
+            if (random.nextInt(8) == 0) {
+                document.append(newlines[random.nextInt(newlines.length)]);
+            }
+        }
+        return document.toString();
+    }
+
+    private static String randomField(Random random, boolean header) {
+        String[] pieces = {"a", "B", "1", " ", "\t", "\u00e9", "\ud83d\ude00", "\u3000", "x y", "\"", "\ufeff"};
+        StringBuilder value = new StringBuilder(header ? "H" + random.nextInt(3) : "");
+        int length = random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            value.append(pieces[random.nextInt(pieces.length)]);
+        }
+
+        if (random.nextInt(3) != 0) {
+            String text = value.toString();
+            return random.nextInt(40) == 0 ? text.replace("\"", "") + "\u0000" : text.replace("\"", "");
+        }
+
+        String[] quotedPieces = {",", "\n", "\r\n", "\"\""};
+        StringBuilder quoted = new StringBuilder("\"").append(value.toString().replace("\"", "\"\""));
+        if (random.nextBoolean()) {
+            quoted.append(quotedPieces[random.nextInt(quotedPieces.length)]);
+        }
+        int ending = random.nextInt(30);
+        if (ending == 0) {
+            return quoted.toString();
+        }
+        quoted.append('"');
+        if (ending == 1) {
+            quoted.append('x');
+        } else if (ending < 6) {
+            quoted.append(random.nextBoolean() ? " \t" : "\u3000");
+        }
+        return quoted.toString();
+    }
+
+    private static String randomCpf(Random random) {
+        StringBuilder cpf = new StringBuilder();
+        for (int i = 0; i < 11; i++) {
+            cpf.append(random.nextInt(10));
+        }
+        return cpf.toString();
+    }
+
+    private static String escape(String input) {
+        return input.replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,75 @@
+package com.ferramentas.ferramentas.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstThenRejectsWithWaitTime() {
+        // 1 ficha a cada 100 s: dentro do teste não há reposição
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.01, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("cliente"));
+        }
+        long wait = limiter.tryAcquire("cliente");
+        assertTrue(wait > 90_000_000_000L && wait <= 100_000_000_000L, "espera: " + wait);
+    }
+
+    @Test
+    void keepsOneBucketPerKey() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.01, 1);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurst() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.01, 100);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.tryAcquire("cliente") == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1_000_000_000, 1);
+        TokenBucketLimiter slow = new TokenBucketLimiter(0.01, 2);
+
+        limiter.tryAcquire("rapido");
+        slow.tryAcquire("lento");
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, slow.evictIdle());
+    }
+}